@@ -0,0 +1,23 @@
+package com.project.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+/**
+ * A successful response kept by the gateway
+ *
+ * @param headers Headers of the service response, without the per connection ones
+ * @param body    Body as sent by the service
+ * @param eTag    Entity tag of the body, from the service or computed from the body
+ * @param ttl     How long the route keeps its responses
+ */
+record CachedResponse(HttpHeaders headers, byte[] body, String eTag, Duration ttl) {
+
+    /**
+     * Approximate bytes held, what bounds the cache
+     */
+    int weight() {
+        return body.length + headers.size() * 64;
+    }
+}
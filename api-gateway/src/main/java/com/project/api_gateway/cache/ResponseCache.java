@@ -0,0 +1,101 @@
+package com.project.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Responses of the cached routes, shared by all of them and bounded by the bytes they hold.
+ * Each response expires after the time to live of its route.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private Cache<Key, CachedResponse> responses;
+
+    public ResponseCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, CachedResponse response) -> response.weight())
+                .expireAfter(Expiry.creating((Key key, CachedResponse response) -> response.ttl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway.response-cache");
+    }
+
+    CachedResponse get(Key key) {
+        CachedResponse response = responses.getIfPresent(key);
+        requestCounter(key.routeId(), response != null ? "hit" : "miss").increment();
+        return response;
+    }
+
+    void put(Key key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    /**
+     * Counts the bytes of cached bodies sent to clients, a body answered by a 304 is not sent
+     */
+    void served(Key key, int bytes) {
+        Counter.builder("gateway.response-cache.served")
+                .description("Bytes of cached responses sent without calling the service")
+                .baseUnit("bytes")
+                .tag("route", key.routeId())
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    /**
+     * Forgets the responses of the paths starting with a prefix, all of them without one
+     *
+     * @return The number of responses removed
+     */
+    public int purge(String pathPrefix) {
+        int before = responses.asMap().size();
+        if (pathPrefix == null || pathPrefix.isEmpty()) {
+            responses.invalidateAll();
+        } else {
+            responses.asMap().keySet().removeIf(key -> key.path().startsWith(pathPrefix));
+        }
+
+        int purged = before - responses.asMap().size();
+        log.info("Purged {} cached responses (prefix {})", purged, pathPrefix);
+        return Math.max(0, purged);
+    }
+
+    private Counter requestCounter(String routeId, String result) {
+        return Counter.builder("gateway.response-cache.requests")
+                .description("Requests of cached routes, answered from the cache or not")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * What a response depends on: the resource and the representation asked for
+     *
+     * @param path Path and query of the request
+     */
+    record Key(String routeId, String path, String accept, String acceptEncoding) {
+    }
+}
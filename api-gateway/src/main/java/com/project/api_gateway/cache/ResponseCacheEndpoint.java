@@ -0,0 +1,29 @@
+package com.project.api_gateway.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Purges the responses kept by the gateway, e.g. once restaurants were changed.
+ * Exposed over JMX only, as {@code org.springframework.boot:type=Endpoint,name=Responsecache},
+ * the web actuator endpoints being reachable without a token.
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCache cache;
+
+    public ResponseCacheEndpoint(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @DeleteOperation
+    public Map<String, Integer> purge(@Nullable String pathPrefix) {
+        return Map.of("purged", cache.purge(pathPrefix));
+    }
+}
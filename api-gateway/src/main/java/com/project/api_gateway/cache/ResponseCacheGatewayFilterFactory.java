@@ -0,0 +1,183 @@
+package com.project.api_gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers the GET requests of a route from the responses of the service kept for a while.
+ * Responses get an entity tag, the service's or one computed from the body, and a request already holding
+ * the current version, per {@code If-None-Match}, is answered 304 by the gateway.
+ * <p>
+ * Only complete 200 responses are kept, not the ones the service marks private or no-store, nor the ones
+ * setting cookies. The filter comes before the other filters of the route, a cached response is not rate limited.
+ * Changes made through the services show up once the responses expire, or after a purge of {@link ResponseCacheEndpoint}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * Headers describing the connection to the service rather than the response
+     */
+    private static final Set<String> NOT_CACHED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.DATE, "Keep-Alive");
+
+    private final ResponseCache cache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Runs before the write response filter, which writes to the response it got, to decorate it first
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            ResponseCache.Key key = key(exchange);
+            CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, key, cached);
+            }
+
+            ServerHttpResponse response = exchange.getResponse();
+            ServerHttpResponseDecorator caching = new ServerHttpResponseDecorator(response) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (!isCacheable(getStatusCode(), getHeaders())) {
+                        return super.writeWith(body);
+                    }
+
+                    return DataBufferUtils.join(body).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        CachedResponse fetched = toCachedResponse(getHeaders(), bytes, config.getTtl());
+                        cache.put(key, fetched);
+
+                        getHeaders().putAll(fetched.headers());
+                        getHeaders().setETag(fetched.eTag());
+                        if (isNotModified(request, fetched)) {
+                            return writeNotModified(getDelegate());
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+
+            return chain.filter(exchange.mutate().response(caching).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, ResponseCache.Key key, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setETag(cached.eTag());
+
+        if (isNotModified(exchange.getRequest(), cached)) {
+            return writeNotModified(response);
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        cache.served(key, cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Mono<Void> writeNotModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return response.setComplete();
+    }
+
+    private static boolean isNotModified(ServerHttpRequest request, CachedResponse response) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(response.eTag()) || ifNoneMatch.contains("*");
+    }
+
+    private static boolean isCacheable(HttpStatusCode status, HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return HttpStatus.OK.equals(status)
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+    }
+
+    private static CachedResponse toCachedResponse(HttpHeaders responseHeaders, byte[] body, Duration ttl) {
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            if (NOT_CACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+
+        // Clients may keep the response as long as they check it is current, the gateway answers that check
+        if (headers.getCacheControl() == null) {
+            headers.setCacheControl(CacheControl.noCache());
+        }
+
+        // Computed like Spring's ShallowEtagHeaderFilter does when the service sends none
+        String eTag = responseHeaders.getETag() != null
+                ? responseHeaders.getETag()
+                : "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+        return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body, eTag, ttl);
+    }
+
+    private static ResponseCache.Key key(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().value() + (query != null ? "?" + query : "");
+        return new ResponseCache.Key(routeId, path,
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    public static class Config {
+
+        /**
+         * How long the responses of the route are kept
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
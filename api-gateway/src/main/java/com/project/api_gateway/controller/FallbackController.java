@@ -1,15 +1,37 @@
 package com.project.api_gateway.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 @RestController
 public class FallbackController {
 
-    @GetMapping("/fallback")
-    public ResponseEntity<String> fallback() {
+    private final MeterRegistry meterRegistry;
+
+    public FallbackController(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Forwarded with the method of the failed request
+    @RequestMapping("/fallback")
+    public ResponseEntity<String> fallback(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+
+        Counter.builder("gateway.fallbacks")
+                .description("Requests answered by the fallback, the service failing or its circuit breaker being open")
+                .tag("route", route != null ? route.getId() : "none")
+                .tag("reason", cause != null ? cause.getClass().getSimpleName() : "none")
+                .register(meterRegistry)
+                .increment();
+
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body("Unavailable.");
     }
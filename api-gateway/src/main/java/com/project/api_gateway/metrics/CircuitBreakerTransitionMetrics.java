@@ -0,0 +1,51 @@
+package com.project.api_gateway.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the state transitions of the circuit breakers of the routes in {@code gateway.circuitbreaker.transitions}.
+ * The current state is already exported by resilience4j, transitions show the ones happening between two scrapes.
+ */
+@Component
+public class CircuitBreakerTransitionMetrics implements Customizer<ReactiveResilience4JCircuitBreakerFactory> {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerTransitionMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public CircuitBreakerTransitionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void customize(ReactiveResilience4JCircuitBreakerFactory factory) {
+        CircuitBreakerRegistry registry = factory.getCircuitBreakerRegistry();
+        // Circuit breakers are created on the first request of their route
+        registry.getAllCircuitBreakers().forEach(this::bind);
+        registry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+    }
+
+    private void bind(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Circuit breaker {} went from {} to {}",
+                    event.getCircuitBreakerName(), transition.getFromState(), transition.getToState());
+
+            Counter.builder("gateway.circuitbreaker.transitions")
+                    .description("State transitions of the circuit breakers of the routes")
+                    .tag("name", event.getCircuitBreakerName())
+                    .tag("from", transition.getFromState().name().toLowerCase())
+                    .tag("to", transition.getToState().name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+}
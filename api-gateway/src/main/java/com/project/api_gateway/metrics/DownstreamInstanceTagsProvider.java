@@ -0,0 +1,33 @@
+package com.project.api_gateway.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.tagsprovider.GatewayTagsProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+
+/**
+ * Tags the gateway request metrics with the service instance that answered, as chosen by the load balancer.
+ * Requests answered before reaching a service, from the cache or by the rate limiter, are tagged {@code none}.
+ */
+@Component
+public class DownstreamInstanceTagsProvider implements GatewayTagsProvider {
+
+    static final String NONE = "none";
+
+    @Override
+    public Tags apply(ServerWebExchange exchange) {
+        return Tags.of("instance", instance(exchange));
+    }
+
+    static String instance(ServerWebExchange exchange) {
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        // Still lb:// when no instance could be chosen
+        if (requestUrl == null || requestUrl.getHost() == null || "lb".equals(requestUrl.getScheme())) {
+            return NONE;
+        }
+        return requestUrl.getHost() + ":" + requestUrl.getPort();
+    }
+}
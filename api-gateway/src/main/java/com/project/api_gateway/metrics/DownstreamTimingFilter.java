@@ -0,0 +1,76 @@
+package com.project.api_gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the latency of a routed request between the gateway and the service instance.
+ * Once the load balancer chose an instance, the time it took is recorded in {@code gateway.loadbalancer.choice},
+ * then the time the instance takes to answer in {@code gateway.downstream.requests}.
+ * What {@code spring.cloud.gateway.requests} measures beyond both is spent in the gateway.
+ */
+@Component
+public class DownstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamTimingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        String routeId = routeId(exchange);
+        String instance = DownstreamInstanceTagsProvider.instance(exchange);
+
+        Long loadBalancerStart = exchange.getAttribute(LoadBalancerTimingFilter.LOAD_BALANCER_START_ATTR);
+        if (loadBalancerStart != null) {
+            Timer.builder("gateway.loadbalancer.choice")
+                    .description("Time the load balancer took to choose a service instance")
+                    .tag("route", routeId)
+                    .register(meterRegistry)
+                    .record(start - loadBalancerStart, TimeUnit.NANOSECONDS);
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> Timer.builder("gateway.downstream.requests")
+                        .description("Time a service instance took to answer a routed request")
+                        .tag("route", routeId)
+                        .tag("instance", instance)
+                        .tag("outcome", outcome(exchange.getResponse().getStatusCode()))
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "none";
+    }
+
+    /**
+     * Status class of the answer, named like the outcome of {@code spring.cloud.gateway.requests}
+     */
+    private static String outcome(HttpStatusCode status) {
+        HttpStatus.Series series = status != null ? HttpStatus.Series.resolve(status.value()) : null;
+        return series != null ? series.name() : "UNKNOWN";
+    }
+}
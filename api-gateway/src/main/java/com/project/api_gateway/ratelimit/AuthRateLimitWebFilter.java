@@ -0,0 +1,38 @@
+package com.project.api_gateway.ratelimit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Rate limits the logins per client address. They are answered by the gateway itself,
+ * out of the routes {@link RateLimitGatewayFilterFactory} applies to.
+ */
+@Component
+public class AuthRateLimitWebFilter implements WebFilter {
+
+    private static final PathPattern AUTH_PATHS = PathPatternParser.defaultInstance.parse("/auth/**");
+
+    private final RateLimiter rateLimiter;
+
+    public AuthRateLimitWebFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!AUTH_PATHS.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+
+        String client = RateLimitGatewayFilterFactory.clientAddress(exchange.getRequest());
+        long wait = client == null ? 0 : rateLimiter.tryAcquire(Map.of(KeyClass.CLIENT, client));
+        return wait == 0 ? chain.filter(exchange) : RateLimitGatewayFilterFactory.throttle(exchange, wait);
+    }
+}
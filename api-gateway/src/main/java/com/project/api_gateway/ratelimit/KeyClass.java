@@ -0,0 +1,26 @@
+package com.project.api_gateway.ratelimit;
+
+/**
+ * What the requests sharing a bucket have in common
+ */
+public enum KeyClass {
+    USER("user"),
+    RESTAURANT("restaurant"),
+    /**
+     * Address of a request without a token, standing for its user
+     */
+    CLIENT("client");
+
+    /**
+     * Name of the key class in metric tags and configuration
+     */
+    private final String tag;
+
+    KeyClass(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,181 @@
+package com.project.api_gateway.ratelimit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the requests of a route per user, the subject of their token, and per restaurant.
+ * Requests without a token are limited per client address instead of per user.
+ * The restaurant is taken from the path, or from the {@code restaurantId} of a small JSON body.
+ * Throttled requests are answered 429 with the seconds to wait in {@code Retry-After}.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+
+    /**
+     * Paths naming a restaurant, across the routed services
+     */
+    private static final List<PathPattern> RESTAURANT_PATHS = List.of(
+            "/api/restaurant/{restaurantId}",
+            "/api/table/restaurant/{restaurantId}",
+            "/api/reservation/restaurant/{restaurantId}/**"
+    ).stream().map(PathPatternParser.defaultInstance::parse).toList();
+
+    /**
+     * Larger bodies are not read to find their restaurant, request bodies of the services are much smaller
+     */
+    private static final long MAX_BODY_TO_READ = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final JsonFactory jsonFactory;
+
+    public RateLimitGatewayFilterFactory(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        super(Config.class);
+        this.rateLimiter = rateLimiter;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            String pathRestaurantId = restaurantIdFromPath(exchange.getRequest());
+
+            // The body is read once and replayed to the service
+            Mono<ServerWebExchange> readExchange = pathRestaurantId == null && hasSmallJsonBody(exchange.getRequest())
+                    ? ServerWebExchangeUtils.cacheRequestBody(exchange,
+                            request -> Mono.just(exchange.mutate().request(request).build()))
+                    : Mono.just(exchange);
+
+            return readExchange.flatMap(current -> current.getPrincipal()
+                    .map(Principal::getName)
+                    .defaultIfEmpty("")
+                    .flatMap(subject -> {
+                        String restaurantId = pathRestaurantId != null ? pathRestaurantId : restaurantIdFromBody(current);
+
+                        Map<KeyClass, String> keys = new EnumMap<>(KeyClass.class);
+                        if (!subject.isEmpty()) {
+                            keys.put(KeyClass.USER, subject);
+                        } else {
+                            String client = clientAddress(current.getRequest());
+                            if (client != null) {
+                                keys.put(KeyClass.CLIENT, client);
+                            }
+                        }
+                        if (restaurantId != null) {
+                            keys.put(KeyClass.RESTAURANT, restaurantId);
+                        }
+
+                        long wait = keys.isEmpty() ? 0 : rateLimiter.tryAcquire(keys);
+                        return wait == 0 ? chain.filter(current) : throttle(current, wait);
+                    }));
+        };
+    }
+
+    static Mono<Void> throttle(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        // Whole seconds, rounded up so that the retry finds a token
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+
+        DataBuffer body = response.bufferFactory().wrap("Too many requests.".getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+
+    /**
+     * Forwarded headers are deliberately not applied: the gateway is the edge of the deployment, a client could
+     * otherwise pick its own bucket by sending them. A proxy put in front would share one bucket between its clients.
+     *
+     * @return The address of the peer the request comes from, null when unknown
+     */
+    static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getHostAddress();
+    }
+
+    private static String restaurantIdFromPath(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : RESTAURANT_PATHS) {
+            PathPattern.PathMatchInfo match = pattern.matchAndExtract(path);
+            if (match != null) {
+                return match.getUriVariables().get("restaurantId");
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasSmallJsonBody(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        MediaType contentType = request.getHeaders().getContentType();
+        long length = request.getHeaders().getContentLength();
+
+        return (method == HttpMethod.POST || method == HttpMethod.PUT)
+                && contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                && length > 0 && length <= MAX_BODY_TO_READ;
+    }
+
+    /**
+     * @return The top level restaurantId of the cached JSON body, null when there is none
+     */
+    private String restaurantIdFromBody(ServerWebExchange exchange) {
+        DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+        if (body == null) {
+            return null;
+        }
+
+        // Reads a copy, the buffer is replayed as is to the service
+        try (JsonParser parser = jsonFactory.createParser(body.toString(StandardCharsets.UTF_8))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("restaurantId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the service, they still count for their user
+        }
+        return null;
+    }
+
+    /**
+     * The limits are configured per key class, see {@link RateLimiter}
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.api_gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In memory token buckets, one per user, one per restaurant and one per address of the requests without a token.
+ * Buckets are only kept while they are used, an idle bucket is full again and the same as a new one.
+ * <p>
+ * When shared across instances, every gateway instance registered in Eureka enforces its share of the limits,
+ * requests being spread evenly by the load balancer in front of them.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final DiscoveryClient discoveryClient;
+
+    @Value("${rate-limit.user.capacity:100}")
+    private long userCapacity;
+
+    @Value("${rate-limit.user.refill-per-second:20}")
+    private double userRefillPerSecond;
+
+    @Value("${rate-limit.restaurant.capacity:200}")
+    private long restaurantCapacity;
+
+    @Value("${rate-limit.restaurant.refill-per-second:50}")
+    private double restaurantRefillPerSecond;
+
+    @Value("${rate-limit.client.capacity:30}")
+    private long clientCapacity;
+
+    @Value("${rate-limit.client.refill-per-second:5}")
+    private double clientRefillPerSecond;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${rate-limit.share-across-instances:false}")
+    private boolean shareAcrossInstances;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    private final Map<KeyClass, Limit> limits = new EnumMap<>(KeyClass.class);
+    private final Map<KeyClass, Cache<String, TokenBucket>> buckets = new EnumMap<>(KeyClass.class);
+    private final Map<KeyClass, Counter> allowed = new EnumMap<>(KeyClass.class);
+    private final Map<KeyClass, Counter> throttled = new EnumMap<>(KeyClass.class);
+
+    private volatile int instances = 1;
+
+    public RateLimiter(MeterRegistry meterRegistry, DiscoveryClient discoveryClient) {
+        this.meterRegistry = meterRegistry;
+        this.discoveryClient = discoveryClient;
+    }
+
+    @PostConstruct
+    void init() {
+        limits.put(KeyClass.USER, new Limit(userCapacity, userRefillPerSecond));
+        limits.put(KeyClass.RESTAURANT, new Limit(restaurantCapacity, restaurantRefillPerSecond));
+        limits.put(KeyClass.CLIENT, new Limit(clientCapacity, clientRefillPerSecond));
+
+        for (KeyClass keyClass : KeyClass.values()) {
+            buckets.put(keyClass, Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleTimeout)
+                    .build());
+            allowed.put(keyClass, requestCounter(keyClass, "allowed"));
+            throttled.put(keyClass, requestCounter(keyClass, "throttled"));
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of every key, or from none: the tokens taken before a bucket throttles
+     * the request are given back, a request refused for its restaurant does not cost its user.
+     *
+     * @param keys Key of every bucket the request is counted in
+     * @return 0 when the request is allowed, otherwise the nanoseconds until the throttling bucket would allow it
+     */
+    public long tryAcquire(Map<KeyClass, String> keys) {
+        long now = System.nanoTime();
+        int share = instances;
+
+        List<TokenBucket> taken = new ArrayList<>(keys.size());
+        List<Long> intervals = new ArrayList<>(keys.size());
+        for (Map.Entry<KeyClass, String> key : keys.entrySet()) {
+            Limit limit = limits.get(key.getKey());
+
+            // An instance gets 1/n of the capacity and of the refill rate, at least one token
+            long capacity = Math.max(1, limit.capacity() / share);
+            long interval = limit.interval() * share;
+
+            TokenBucket bucket = buckets.get(key.getKey()).get(key.getValue(), k -> new TokenBucket(now));
+            long wait = bucket.tryAcquire(now, interval, capacity);
+            if (wait > 0) {
+                for (int i = 0; i < taken.size(); i++) {
+                    taken.get(i).refund(intervals.get(i));
+                }
+                throttled.get(key.getKey()).increment();
+                return wait;
+            }
+            taken.add(bucket);
+            intervals.add(interval);
+        }
+
+        keys.keySet().forEach(keyClass -> allowed.get(keyClass).increment());
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.instances-refresh-interval:30s}")
+    void refreshInstances() {
+        if (!shareAcrossInstances) {
+            return;
+        }
+
+        try {
+            int registered = Math.max(1, discoveryClient.getInstances(applicationName).size());
+            if (registered != instances) {
+                log.info("Rate limits shared by {} gateway instances", registered);
+                instances = registered;
+            }
+        } catch (RuntimeException e) {
+            // Keeps the last known share until the registry answers again
+            log.warn("Could not count the gateway instances: {}", e.getMessage());
+        }
+    }
+
+    private Counter requestCounter(KeyClass keyClass, String outcome) {
+        return Counter.builder("gateway.rate-limit.requests")
+                .description("Requests checked against the rate limits")
+                .tag("key.class", keyClass.getTag())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param capacity Requests allowed at once
+     * @param interval Nanoseconds to get one request back
+     */
+    private record Limit(long capacity, long interval) {
+
+        Limit(long capacity, double refillPerSecond) {
+            this(capacity, (long) (Duration.ofSeconds(1).toNanos() / refillPerSecond));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.api_gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp, the instant it is full again, so that taking a token is one compare and set.
+ * A bucket refilling one token every {@code interval} holds {@code capacity - (fullAt - now) / interval} tokens,
+ * taking one pushes {@code fullAt} one interval further. It cannot be pushed more than {@code capacity} intervals ahead.
+ * The limits are given at every call, a bucket follows changes of the limits it is checked against.
+ */
+class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @param now      Current time in nanoseconds, from {@link System#nanoTime()}
+     * @param interval Nanoseconds to get one token back
+     * @param capacity Tokens the bucket holds when full
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long now, long interval, long capacity) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - capacity * interval;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken with the same interval
+     */
+    void refund(long interval) {
+        fullAt.addAndGet(-interval);
+    }
+}
@@ -1,7 +1,5 @@
 package com.project.api_gateway.security;
 
-import com.project.api_gateway.utils.JwtUtil;
-import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
@@ -16,10 +14,10 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter implements WebFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerifier jwtVerifier;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
@@ -29,23 +27,20 @@ public class JwtAuthenticationFilter implements WebFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            try {
-                if (jwtUtil.isTokenValid(token)) {
-                    Claims claims = jwtUtil.extractAllClaims(token);
-
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    claims.getSubject(),
-                                    null,
-                                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                            );
-
-                    return chain.filter(exchange)
-                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-                }
-            } catch (Exception e) {
-                System.err.println("JWT Error: " + e.getMessage());
-            }
+            // Invalid tokens leave the exchange unauthenticated, the security chain rejects it
+            return jwtVerifier.verify(token)
+                    .map(claims -> {
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(
+                                        claims.getSubject(),
+                                        null,
+                                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                                );
+
+                        return chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                    })
+                    .orElseGet(() -> chain.filter(exchange));
         }
 
         return chain.filter(exchange);
@@ -0,0 +1,114 @@
+package com.project.api_gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.api_gateway.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens, remembering the claims of the tokens already verified.
+ * A client sends the same token with every request until it expires, repeated requests
+ * skip the parsing and the HMAC verification. Tokens are kept by their SHA-256 digest,
+ * not in clear, and each one is forgotten when it expires.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<ByteBuffer, Claims> verified;
+    private Timer validTimer;
+    private Timer invalidTimer;
+
+    public JwtVerifier(JwtUtil jwtUtil, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((ByteBuffer digest, Claims claims) -> untilExpiration(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "gateway.jwt.verified");
+
+        validTimer = verificationTimer("valid");
+        invalidTimer = verificationTimer("invalid");
+    }
+
+    /**
+     * @return The claims of the token, empty when it is not valid
+     */
+    public Optional<Claims> verify(String token) {
+        ByteBuffer digest = digest(token);
+
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
+        long start = System.nanoTime();
+        try {
+            claims = jwtUtil.extractAllClaims(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        // A token without expiration would stay valid forever, it is verified every time instead
+        if (claims.getExpiration() != null) {
+            verified.put(digest, claims);
+        }
+        return Optional.of(claims);
+    }
+
+    private Timer verificationTimer(String outcome) {
+        return Timer.builder("gateway.jwt.verification")
+                .description("Time spent parsing and verifying the signature of tokens missing from the cache")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Duration untilExpiration(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return Duration.ofMillis(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            // MessageDigest instances are not thread safe, getting one is cheap
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
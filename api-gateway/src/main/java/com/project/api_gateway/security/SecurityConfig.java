@@ -2,6 +2,7 @@ package com.project.api_gateway.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -22,8 +23,12 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .authorizeExchange(exchanges -> exchanges
+                        // Service to service endpoints, also reachable through the discovery locator routes
+                        .pathMatchers("/internal/**", "/*/internal/**").denyAll()
                         .pathMatchers("/auth/**").permitAll()
-                        .pathMatchers("/actuator/**").permitAll()
+                        // Actuator endpoints are read only over the web, writes (loggers, routes, cache purge) go through JMX
+                        .pathMatchers(HttpMethod.GET, "/actuator/**").permitAll()
+                        .pathMatchers("/actuator/**").denyAll()
                         .anyExchange().authenticated()
                 )
                 .addFilterAt(jwtAuthFilter, SecurityWebFiltersOrder.AUTHENTICATION)
@@ -0,0 +1,225 @@
+package com.project.api_gateway.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":1,\"name\":\"Chez Paul\"}";
+
+    private MeterRegistry meterRegistry;
+    private ResponseCache cache;
+    private ResponseCacheGatewayFilterFactory factory;
+
+    /**
+     * Answers like the service, counting the requests it gets
+     */
+    private final AtomicInteger calls = new AtomicInteger();
+    private HttpStatus status;
+    private HttpHeaders serviceHeaders;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ResponseCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1024L * 1024);
+        cache.init();
+        factory = new ResponseCacheGatewayFilterFactory(cache);
+
+        status = HttpStatus.OK;
+        serviceHeaders = new HttpHeaders();
+        serviceHeaders.setContentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void shouldAnswerRepeatedRequestFromCache() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        MockServerWebExchange first = get("/api/restaurant/1");
+        filter.filter(first, service()).block();
+        MockServerWebExchange second = get("/api/restaurant/1");
+        filter.filter(second, service()).block();
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(BODY, body(second));
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertNotNull(second.getResponse().getHeaders().getETag());
+        assertEquals(1, meterRegistry.get("gateway.response-cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenClientHoldsCurrentVersion() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        MockServerWebExchange first = get("/api/restaurant/1");
+        filter.filter(first, service()).block();
+        String eTag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        route(revalidation);
+        filter.filter(revalidation, service()).block();
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(eTag, revalidation.getResponse().getHeaders().getETag());
+        assertEquals("", body(revalidation));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedOnFirstRequestWithCurrentVersion() {
+        serviceHeaders.setETag("\"v7\"");
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v7\""));
+        route(exchange);
+        filter.filter(exchange, service()).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+        assertEquals("\"v7\"", exchange.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void shouldCallServiceAgainOnceResponseExpired() throws InterruptedException {
+        GatewayFilter filter = filter(Duration.ofMillis(100));
+
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        assertEquals(1, calls.get());
+
+        Thread.sleep(200);
+        filter.filter(get("/api/restaurant/1"), service()).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldKeepResponsesPerPathAndRepresentation() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        filter.filter(get("/api/restaurant/2"), service()).block();
+        filter.filter(get("/api/restaurant/1?page=2"), service()).block();
+        MockServerWebExchange hal = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.ACCEPT, "application/hal+json"));
+        route(hal);
+        filter.filter(hal, service()).block();
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void shouldNotKeepPrivateResponses() {
+        serviceHeaders.setCacheControl("private, max-age=60");
+
+        assertServiceCalledEveryTime();
+    }
+
+    @Test
+    void shouldNotKeepResponsesSettingCookies() {
+        serviceHeaders.add(HttpHeaders.SET_COOKIE, "session=1");
+
+        assertServiceCalledEveryTime();
+    }
+
+    @Test
+    void shouldNotKeepErrors() {
+        status = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        assertServiceCalledEveryTime();
+    }
+
+    @Test
+    void shouldNotKeepOtherMethods() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/restaurant/1"));
+            route(exchange);
+            filter.filter(exchange, service()).block();
+        }
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldPurgeByPathPrefix() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        filter.filter(get("/api/table/restaurant/1"), service()).block();
+
+        assertEquals(1, cache.purge("/api/restaurant"));
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        filter.filter(get("/api/table/restaurant/1"), service()).block();
+
+        assertEquals(3, calls.get());
+    }
+
+    private void assertServiceCalledEveryTime() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+
+        filter.filter(get("/api/restaurant/1"), service()).block();
+        MockServerWebExchange second = get("/api/restaurant/1");
+        filter.filter(second, service()).block();
+
+        assertEquals(2, calls.get());
+        assertEquals(BODY, body(second));
+    }
+
+    private GatewayFilter filter(Duration ttl) {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(ttl);
+        return factory.apply(config);
+    }
+
+    private GatewayFilterChain service() {
+        return exchange -> {
+            calls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().putAll(serviceHeaders);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        route(exchange);
+        return exchange;
+    }
+
+    private static void route(MockServerWebExchange exchange) {
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("restaurant-service-restaurants")
+                .uri("lb://restaurant-service")
+                .predicate(request -> true)
+                .build());
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        MockServerHttpResponse response = exchange.getResponse();
+        return response.getBodyAsString().defaultIfEmpty("").block();
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.api_gateway.cache;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which requests reach a route keeping the responses, as the routes are configured
+ */
+@SpringBootTest(properties = "eureka.client.enabled=false")
+class ResponseCacheRoutesTest {
+
+    @Autowired
+    private RouteLocator routeLocator;
+
+    @Autowired
+    private RouteDefinitionLocator routeDefinitionLocator;
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+            "GET, /api/restaurant, true",
+            "GET, /api/restaurant/1, true",
+            "GET, /api/table/restaurant/1, true",
+            "POST, /api/restaurant, false",
+            "PUT, /api/restaurant/1, false",
+            "GET, /api/table/1, false",
+            "GET, /api/availability/restaurant/1, false",
+            "GET, /api/reservation/1, false"
+    })
+    void shouldOnlyCacheReadsOfRestaurantsAndTables(HttpMethod method, String path, boolean cached) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.method(method, URI.create(path)));
+
+        Route route = routeLocator.getRoutes()
+                .filterWhen(candidate -> candidate.getPredicate().apply(exchange))
+                .next()
+                .block();
+        assertNotNull(route, () -> "No route for " + path);
+
+        RouteDefinition definition = routeDefinitionLocator.getRouteDefinitions()
+                .filter(candidate -> candidate.getId().equals(route.getId()))
+                .blockFirst();
+        assertNotNull(definition);
+        assertEquals(cached, definition.getFilters().stream().map(FilterDefinition::getName).anyMatch("ResponseCache"::equals),
+                () -> method + " " + path + " is routed by " + route.getId());
+    }
+}
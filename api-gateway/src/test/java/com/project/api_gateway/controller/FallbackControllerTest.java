@@ -0,0 +1,55 @@
+package com.project.api_gateway.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FallbackControllerTest {
+
+    private MeterRegistry meterRegistry;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Sets what the circuit breaker filter leaves on the exchange before forwarding
+        client = WebTestClient.bindToController(new FallbackController(meterRegistry))
+                .webFilter((exchange, chain) -> {
+                    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                            .id("restaurant-service")
+                            .uri("lb://restaurant-service")
+                            .predicate(ignored -> true)
+                            .build());
+                    exchange.getAttributes().put(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR,
+                            new TimeoutException());
+                    return chain.filter(exchange);
+                })
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GET", "POST", "PUT", "DELETE"})
+    void shouldAnswerUnavailableWhateverTheMethod(String method) {
+        client.method(HttpMethod.valueOf(method))
+                .uri("/fallback")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertEquals(1, meterRegistry.get("gateway.fallbacks")
+                .tag("route", "restaurant-service")
+                .tag("reason", "TimeoutException")
+                .counter()
+                .count());
+    }
+}
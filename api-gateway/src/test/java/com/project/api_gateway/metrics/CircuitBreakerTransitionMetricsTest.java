@@ -0,0 +1,57 @@
+package com.project.api_gateway.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTransitionMetricsTest {
+
+    private MeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private ReactiveResilience4JCircuitBreakerFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        factory = new ReactiveResilience4JCircuitBreakerFactory(circuitBreakerRegistry, TimeLimiterRegistry.ofDefaults());
+    }
+
+    @Test
+    void shouldCountTransitionsOfCircuitBreakersCreatedLater() {
+        new CircuitBreakerTransitionMetrics(meterRegistry).customize(factory);
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("restaurant-service");
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+
+        assertEquals(1, transitions("restaurant-service", "closed", "open"));
+        assertEquals(1, transitions("restaurant-service", "open", "half_open"));
+    }
+
+    @Test
+    void shouldCountTransitionsOfExistingCircuitBreakers() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("reservation-service");
+        new CircuitBreakerTransitionMetrics(meterRegistry).customize(factory);
+
+        circuitBreaker.transitionToOpenState();
+
+        assertEquals(1, transitions("reservation-service", "closed", "open"));
+    }
+
+    private double transitions(String name, String from, String to) {
+        return meterRegistry.get("gateway.circuitbreaker.transitions")
+                .tag("name", name)
+                .tag("from", from)
+                .tag("to", to)
+                .counter()
+                .count();
+    }
+}
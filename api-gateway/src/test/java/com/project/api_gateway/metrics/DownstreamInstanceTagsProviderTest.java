@@ -0,0 +1,47 @@
+package com.project.api_gateway.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamInstanceTagsProviderTest {
+
+    private final DownstreamInstanceTagsProvider provider = new DownstreamInstanceTagsProvider();
+
+    @Test
+    void shouldTagInstanceChosenByLoadBalancer() {
+        MockServerWebExchange exchange = exchange(URI.create("http://10.0.0.5:8081/api/restaurant/1"));
+
+        assertEquals("10.0.0.5:8081", provider.apply(exchange).stream()
+                .filter(tag -> tag.getKey().equals("instance"))
+                .findFirst()
+                .orElseThrow()
+                .getValue());
+    }
+
+    @Test
+    void shouldTagNoneWhenNoInstanceWasChosen() {
+        MockServerWebExchange exchange = exchange(URI.create("lb://restaurant-service/api/restaurant/1"));
+
+        assertEquals(DownstreamInstanceTagsProvider.NONE, DownstreamInstanceTagsProvider.instance(exchange));
+    }
+
+    @Test
+    void shouldTagNoneWhenAnsweredBeforeReachingService() {
+        // The cache and the rate limiter answer before the load balancer sets the request url
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1"));
+
+        assertEquals(DownstreamInstanceTagsProvider.NONE, DownstreamInstanceTagsProvider.instance(exchange));
+    }
+
+    private static MockServerWebExchange exchange(URI requestUrl) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        return exchange;
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.api_gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamTimingFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private DownstreamTimingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DownstreamTimingFilter(meterRegistry);
+    }
+
+    @Test
+    void shouldTimeInstanceAndLoadBalancerChoice() {
+        MockServerWebExchange exchange = exchange();
+
+        // The load balancer sits between both filters and replaces the lb:// url with the chosen instance
+        new LoadBalancerTimingFilter().filter(exchange, chosen -> {
+            chosen.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                    URI.create("http://10.0.0.5:8081/api/restaurant/1"));
+            return filter.filter(chosen, answering(HttpStatus.OK));
+        }).block();
+
+        Timer downstream = meterRegistry.get("gateway.downstream.requests")
+                .tag("route", "restaurant-service")
+                .tag("instance", "10.0.0.5:8081")
+                .tag("outcome", "SUCCESSFUL")
+                .timer();
+        assertEquals(1, downstream.count());
+        assertEquals(1, meterRegistry.get("gateway.loadbalancer.choice").tag("route", "restaurant-service").timer().count());
+    }
+
+    @Test
+    void shouldTagStatusClassOfAnswer() {
+        MockServerWebExchange exchange = exchange();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://10.0.0.5:8081/api/restaurant/1"));
+
+        filter.filter(exchange, answering(HttpStatus.SERVICE_UNAVAILABLE)).block();
+
+        assertEquals(1, meterRegistry.get("gateway.downstream.requests").tag("outcome", "SERVER_ERROR").timer().count());
+    }
+
+    @Test
+    void shouldNotTimeChoiceWithoutLoadBalancer() {
+        MockServerWebExchange exchange = exchange();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("lb://restaurant-service/api/restaurant/1"));
+
+        filter.filter(exchange, answering(HttpStatus.NOT_FOUND)).block();
+
+        assertNull(meterRegistry.find("gateway.loadbalancer.choice").timer());
+        assertEquals(1, meterRegistry.get("gateway.downstream.requests")
+                .tag("instance", DownstreamInstanceTagsProvider.NONE)
+                .tag("outcome", "CLIENT_ERROR")
+                .timer()
+                .count());
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("restaurant-service")
+                .uri("lb://restaurant-service")
+                .predicate(ignored -> true)
+                .build());
+        return exchange;
+    }
+
+    private static GatewayFilterChain answering(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+}
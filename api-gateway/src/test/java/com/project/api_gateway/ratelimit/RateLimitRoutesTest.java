@@ -0,0 +1,58 @@
+package com.project.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that no route reaches a service around the rate limiter, with both services registered
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.restaurant-service[0].uri=http://localhost:8081",
+        "spring.cloud.discovery.client.simple.instances.reservation-service[0].uri=http://localhost:8082"
+})
+class RateLimitRoutesTest {
+
+    @Autowired
+    private RouteLocator routeLocator;
+
+    @Autowired
+    private RouteDefinitionLocator routeDefinitionLocator;
+
+    @Test
+    void shouldRateLimitEveryRoute() {
+        List<RouteDefinition> definitions = routeDefinitionLocator.getRouteDefinitions().collectList().block();
+
+        assertNotNull(definitions);
+        assertFalse(definitions.isEmpty());
+        definitions.forEach(definition -> assertTrue(
+                definition.getFilters().stream().map(FilterDefinition::getName).anyMatch("RateLimit"::equals),
+                () -> definition.getId() + " is not rate limited"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/restaurant-service/api/availability/restaurant/1", "/reservation-service/api/reservation/1"})
+    void shouldNotRouteByServiceName(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+
+        Route route = routeLocator.getRoutes()
+                .filterWhen(candidate -> candidate.getPredicate().apply(exchange))
+                .next()
+                .block();
+        assertNull(route, () -> path + " is routed by " + route.getId());
+    }
+}
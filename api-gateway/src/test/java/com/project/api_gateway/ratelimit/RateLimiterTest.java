@@ -0,0 +1,129 @@
+package com.project.api_gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    private MeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(meterRegistry, discoveryClient);
+        ReflectionTestUtils.setField(rateLimiter, "userCapacity", 4L);
+        ReflectionTestUtils.setField(rateLimiter, "userRefillPerSecond", 10.0);
+        ReflectionTestUtils.setField(rateLimiter, "restaurantCapacity", 2L);
+        ReflectionTestUtils.setField(rateLimiter, "restaurantRefillPerSecond", 10.0);
+        ReflectionTestUtils.setField(rateLimiter, "clientCapacity", 2L);
+        ReflectionTestUtils.setField(rateLimiter, "clientRefillPerSecond", 10.0);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 1000L);
+        ReflectionTestUtils.setField(rateLimiter, "idleTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(rateLimiter, "applicationName", "api-gateway");
+        rateLimiter.init();
+    }
+
+    @Test
+    void shouldThrottleUserBeyondCapacity() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.USER, "alice")));
+        }
+
+        long wait = rateLimiter.tryAcquire(Map.of(KeyClass.USER, "alice"));
+
+        // One token every 100ms
+        assertTrue(wait > 0 && wait <= Duration.ofMillis(100).toNanos());
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.USER, "bob")));
+        assertEquals(5, count(KeyClass.USER, "allowed"));
+        assertEquals(1, count(KeyClass.USER, "throttled"));
+    }
+
+    @Test
+    void shouldGiveBackUserTokenWhenRestaurantThrottles() {
+        assertEquals(0, rateLimiter.tryAcquire(keys("alice", "1")));
+        assertEquals(0, rateLimiter.tryAcquire(keys("alice", "1")));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire(keys("alice", "1")) > 0);
+        }
+
+        // Two of the four tokens of the user were used, the refused requests cost nothing
+        assertEquals(0, rateLimiter.tryAcquire(keys("alice", "2")));
+        assertEquals(0, rateLimiter.tryAcquire(keys("alice", "2")));
+        assertEquals(4, count(KeyClass.USER, "allowed"));
+        assertEquals(5, count(KeyClass.RESTAURANT, "throttled"));
+        assertEquals(0, count(KeyClass.USER, "throttled"));
+    }
+
+    @Test
+    void shouldLimitClientsSeparatelyFromUsers() {
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.CLIENT, "10.0.0.1")));
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.CLIENT, "10.0.0.1")));
+        assertTrue(rateLimiter.tryAcquire(Map.of(KeyClass.CLIENT, "10.0.0.1")) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.USER, "10.0.0.1")));
+    }
+
+    @Test
+    void shouldEnforceShareOfLimitsAcrossInstances() {
+        ReflectionTestUtils.setField(rateLimiter, "shareAcrossInstances", true);
+        when(discoveryClient.getInstances("api-gateway"))
+                .thenReturn(List.of(mock(ServiceInstance.class), mock(ServiceInstance.class)));
+        rateLimiter.refreshInstances();
+
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.USER, "alice")));
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.USER, "alice")));
+        long wait = rateLimiter.tryAcquire(Map.of(KeyClass.USER, "alice"));
+
+        // Half the capacity, and a token every 200ms instead of 100ms
+        assertTrue(wait > Duration.ofMillis(100).toNanos() && wait <= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void shouldKeepShareWhenRegistryFails() {
+        ReflectionTestUtils.setField(rateLimiter, "shareAcrossInstances", true);
+        when(discoveryClient.getInstances("api-gateway"))
+                .thenReturn(List.of(mock(ServiceInstance.class), mock(ServiceInstance.class)))
+                .thenThrow(new IllegalStateException("Eureka down"));
+        rateLimiter.refreshInstances();
+        rateLimiter.refreshInstances();
+
+        assertEquals(0, rateLimiter.tryAcquire(Map.of(KeyClass.RESTAURANT, "1")));
+        assertTrue(rateLimiter.tryAcquire(Map.of(KeyClass.RESTAURANT, "1")) > 0);
+    }
+
+    private static Map<KeyClass, String> keys(String user, String restaurantId) {
+        Map<KeyClass, String> keys = new EnumMap<>(KeyClass.class);
+        keys.put(KeyClass.USER, user);
+        keys.put(KeyClass.RESTAURANT, restaurantId);
+        return keys;
+    }
+
+    private double count(KeyClass keyClass, String outcome) {
+        return meterRegistry.get("gateway.rate-limit.requests")
+                .tag("key.class", keyClass.getTag())
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
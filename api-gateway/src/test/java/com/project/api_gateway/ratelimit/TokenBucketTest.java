@@ -0,0 +1,65 @@
+package com.project.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL = 100;
+    private static final long CAPACITY = 3;
+
+    @Test
+    void shouldAllowCapacityAtOnceThenThrottle() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(0, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(0, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void shouldRefillOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0, INTERVAL, CAPACITY);
+        }
+
+        assertEquals(40, bucket.tryAcquire(60, INTERVAL, CAPACITY));
+        assertEquals(0, bucket.tryAcquire(100, INTERVAL, CAPACITY));
+        assertEquals(INTERVAL, bucket.tryAcquire(100, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void shouldHoldNoMoreThanCapacityAfterIdling() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        long now = 10 * CAPACITY * INTERVAL;
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(now, INTERVAL, CAPACITY));
+        }
+        assertTrue(bucket.tryAcquire(now, INTERVAL, CAPACITY) > 0);
+    }
+
+    @Test
+    void shouldGiveTokenBackOnRefund() {
+        TokenBucket bucket = new TokenBucket(0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0, INTERVAL, CAPACITY);
+        }
+
+        bucket.refund(INTERVAL);
+
+        assertEquals(0, bucket.tryAcquire(0, INTERVAL, CAPACITY));
+        assertTrue(bucket.tryAcquire(0, INTERVAL, CAPACITY) > 0);
+    }
+
+    @Test
+    void shouldFollowLowerCapacity() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        assertEquals(0, bucket.tryAcquire(0, INTERVAL, 1));
+        assertTrue(bucket.tryAcquire(0, INTERVAL, 1) > 0);
+    }
+}
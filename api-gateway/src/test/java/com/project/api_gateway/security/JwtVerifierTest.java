@@ -0,0 +1,108 @@
+package com.project.api_gateway.security;
+
+import com.project.api_gateway.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "4Z8gF2kL9mN0pQ3rS5tU7vW8xY0zA1bC2dE3fG4hI5jK6lM7nO8pQ9rS0tU1vW2x";
+
+    private MeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.invokeMethod(util, "init");
+        jwtUtil = spy(util);
+
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new JwtVerifier(jwtUtil, meterRegistry);
+        ReflectionTestUtils.setField(verifier, "maxSize", 100L);
+        verifier.init();
+    }
+
+    @Test
+    void shouldVerifyTokenOnceUntilItExpires() {
+        String token = jwtUtil.generateToken("user");
+
+        assertEquals("user", verifier.verify(token).map(Claims::getSubject).orElseThrow());
+        assertEquals("user", verifier.verify(token).map(Claims::getSubject).orElseThrow());
+
+        verify(jwtUtil, times(1)).extractAllClaims(token);
+        assertEquals(1, meterRegistry.get("gateway.jwt.verification").tag("outcome", "valid").timer().count());
+    }
+
+    @Test
+    void shouldForgetTokenWhenItExpires() throws InterruptedException {
+        // Expirations are in whole seconds
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 2) * 1000);
+        String token = token("user", expiration);
+
+        assertTrue(verifier.verify(token).isPresent());
+        assertTrue(verifier.verify(token).isPresent());
+        verify(jwtUtil, times(1)).extractAllClaims(token);
+
+        Thread.sleep(expiration.getTime() - System.currentTimeMillis() + 100);
+
+        assertEquals(Optional.empty(), verifier.verify(token));
+        verify(jwtUtil, times(2)).extractAllClaims(token);
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKeyEveryTime() {
+        Key otherKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET.replace('4', '5')));
+        String token = Jwts.builder()
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(otherKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals(Optional.empty(), verifier.verify(token));
+        assertEquals(Optional.empty(), verifier.verify(token));
+
+        verify(jwtUtil, times(2)).extractAllClaims(token);
+        assertEquals(2, meterRegistry.get("gateway.jwt.verification").tag("outcome", "invalid").timer().count());
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        assertEquals(Optional.empty(), verifier.verify("not-a-token"));
+    }
+
+    @Test
+    void shouldVerifyTokenWithoutExpirationEveryTime() {
+        String token = token("user", null);
+
+        assertTrue(verifier.verify(token).isPresent());
+        assertTrue(verifier.verify(token).isPresent());
+
+        verify(jwtUtil, times(2)).extractAllClaims(token);
+    }
+
+    private static String token(String subject, Date expiration) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
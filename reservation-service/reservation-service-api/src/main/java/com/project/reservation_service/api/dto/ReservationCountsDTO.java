@@ -0,0 +1,28 @@
+package com.project.reservation_service.api.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reservations of a restaurant on a day, counted per slot and status
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationCountsDTO {
+    private Long restaurantId;
+    private LocalDate date;
+    /**
+     * Reservations of the whole day per status
+     */
+    private Map<String, Long> totals;
+    /**
+     * Slots holding at least one reservation, in time order
+     */
+    private List<SlotCountsDTO> slots;
+}
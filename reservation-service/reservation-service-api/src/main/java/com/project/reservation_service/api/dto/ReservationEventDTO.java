@@ -0,0 +1,32 @@
+package com.project.reservation_service.api.dto;
+
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import lombok.*;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Change of a reservation as seen by the services that keep a copy of it.
+ * The version grows with every change of the reservation, a consumer ignores any event older than the state it holds.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Relation(collectionRelation = "events", itemRelation = "event")
+public class ReservationEventDTO {
+    private Long reservationId;
+    private Long restaurantId;
+    private Long tableId;
+    private LocalDate date;
+    private LocalTime time;
+    private ReservationStatus status;
+    private ReservationEventType type;
+    private Long version;
+    private LocalDateTime occurredAt;
+}
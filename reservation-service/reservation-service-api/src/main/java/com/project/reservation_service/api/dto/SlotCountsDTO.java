@@ -0,0 +1,23 @@
+package com.project.reservation_service.api.dto;
+
+import lombok.*;
+
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * Reservations of a slot per status
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotCountsDTO {
+    private LocalTime time;
+    private Map<String, Long> counts;
+    /**
+     * Reservations holding a table, the slot is full once it reaches the number of tables of the restaurant
+     */
+    private Long active;
+}
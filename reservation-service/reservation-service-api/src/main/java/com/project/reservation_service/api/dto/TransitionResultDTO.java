@@ -0,0 +1,23 @@
+package com.project.reservation_service.api.dto;
+
+import com.project.reservation_service.api.enums.TransitionOutcome;
+import lombok.*;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Result of a bulk transition for one reservation
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Relation(collectionRelation = "results", itemRelation = "result")
+public class TransitionResultDTO {
+    private Long id;
+    private TransitionOutcome outcome;
+    /**
+     * Status after the call, null when the reservation was not found
+     */
+    private String status;
+}
@@ -0,0 +1,32 @@
+package com.project.reservation_service.api.dto.requests;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class BatchSearchReservationsRequest {
+
+    @NotEmpty(message = "restaurantIds are required")
+    @Size(max = 500, message = "At most 500 restaurants per search")
+    private List<Long> restaurantIds;
+
+    @NotNull(message = "date is required")
+    private LocalDate date;
+
+    /**
+     * Optional, when omitted every reservation of the day is returned
+     */
+    private LocalTime time;
+}
@@ -0,0 +1,21 @@
+package com.project.reservation_service.api.dto.requests;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class BulkTransitionRequest {
+
+    @NotEmpty(message = "ids are required")
+    @Size(max = 500, message = "At most 500 reservations per call")
+    private List<Long> ids;
+}
@@ -21,6 +21,8 @@ public class SearchReservationsRequest {
     @NotNull(message = "date is required")
     private LocalDate date;
 
-    @NotNull(message = "time is required")
+    /**
+     * Optional, when omitted every reservation of the day is returned
+     */
     private LocalTime time;
 }
@@ -0,0 +1,15 @@
+package com.project.reservation_service.api.enums;
+
+public enum ReservationEventType {
+    CREATED,
+    CONFIRMED,
+    REJECTED,
+    CHECKED_IN,
+    COMPLETED,
+    CANCELED,
+    DELETED,
+    /**
+     * Current state of a reservation, sent while catching up rather than on change
+     */
+    SNAPSHOT
+}
@@ -5,5 +5,12 @@ public enum ReservationStatus {
     CONFIRMED,
     CHECKED_IN,
     COMPLETED,
-    CANCELED,
+    CANCELED;
+
+    /**
+     * Whether a reservation in this status still occupies its table for the booked slot
+     */
+    public boolean holdsTable() {
+        return this == PENDING || this == CONFIRMED || this == CHECKED_IN;
+    }
 }
@@ -0,0 +1,7 @@
+package com.project.reservation_service.api.enums;
+
+public enum TransitionOutcome {
+    APPLIED,
+    NOT_FOUND,
+    INVALID_STATUS
+}
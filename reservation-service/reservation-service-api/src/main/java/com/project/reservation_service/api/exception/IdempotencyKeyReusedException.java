@@ -0,0 +1,7 @@
+package com.project.reservation_service.api.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("This Idempotency-Key was already used with a different request");
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.reservation_service.api.exception;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException() {
+        super("A request with this Idempotency-Key is still being processed, retry shortly");
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.reservation_service.api.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -3,12 +3,14 @@ package com.project.reservation_service.app;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = {
     "com.project.reservation_service.app",
     "com.project.restaurant_service.client"
 })
+@EnableScheduling
 public class ReservationServiceApplication {
 
 	public static void main(String[] args) {
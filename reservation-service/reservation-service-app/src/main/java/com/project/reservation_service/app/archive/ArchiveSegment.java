@@ -0,0 +1,190 @@
+package com.project.reservation_service.app.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One immutable file of archived reservations and its index, both memory mapped.
+ * <p>
+ * The data file is a sequence of blocks, each one a gzip member holding the NDJSON reservations of a customer.
+ * The index file is a sorted array of fixed size entries: the 64 bits hash of a customer key, then the offset
+ * and the length of its block in the data file. A block is indexed under every key of its reservations,
+ * a key may point to several blocks and, through hash collisions, to blocks of other customers.
+ */
+final class ArchiveSegment {
+
+    static final String DATA_SUFFIX = ".gz";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final String name;
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+
+    private ArchiveSegment(String name, ByteBuffer data, ByteBuffer index) {
+        this.name = name;
+        this.data = data;
+        this.index = index;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * A customer's block to write
+     *
+     * @param keys    Keys the block is found under, see {@link #key}
+     * @param content The NDJSON reservations of the block, uncompressed
+     */
+    record Block(Set<String> keys, byte[] content) {
+    }
+
+    /**
+     * Writes a segment in the directory, then maps it. The index is moved in place last: a segment is complete
+     * once its index exists, readers ignore data files without one.
+     * Both files and their names are on disk when this returns, the archived rows can be deleted.
+     */
+    static ArchiveSegment write(Path directory, String name, List<Block> blocks) throws IOException {
+        Path dataFile = directory.resolve(name + DATA_SUFFIX);
+        Path indexFile = directory.resolve(name + INDEX_SUFFIX);
+        Path dataTemp = directory.resolve(name + DATA_SUFFIX + ".tmp");
+        Path indexTemp = directory.resolve(name + INDEX_SUFFIX + ".tmp");
+
+        List<long[]> entries = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(dataTemp, WRITE, CREATE, TRUNCATE_EXISTING);
+             OutputStream out = Channels.newOutputStream(channel)) {
+            int offset = 0;
+            for (Block block : blocks) {
+                byte[] compressed = gzip(block.content());
+                out.write(compressed);
+                for (String key : block.keys()) {
+                    entries.add(new long[]{key(key), offset, compressed.length});
+                }
+                offset += compressed.length;
+            }
+            channel.force(true);
+        }
+
+        entries.sort(Comparator.comparingLong(entry -> entry[0]));
+        ByteBuffer indexBytes = ByteBuffer.allocate(entries.size() * ENTRY_SIZE).order(ByteOrder.BIG_ENDIAN);
+        for (long[] entry : entries) {
+            indexBytes.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]);
+        }
+        indexBytes.flip();
+        try (FileChannel channel = FileChannel.open(indexTemp, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            while (indexBytes.hasRemaining()) {
+                channel.write(indexBytes);
+            }
+            channel.force(true);
+        }
+
+        Files.move(dataTemp, dataFile, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTemp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        // The renames are only durable once the directory is
+        force(directory);
+
+        return open(dataFile, indexFile);
+    }
+
+    static ArchiveSegment open(Path dataFile, Path indexFile) throws IOException {
+        String fileName = indexFile.getFileName().toString();
+        return new ArchiveSegment(fileName.substring(0, fileName.length() - INDEX_SUFFIX.length()), map(dataFile), map(indexFile));
+    }
+
+    /**
+     * @return The compressed blocks indexed under the key, possibly of other customers sharing its hash
+     */
+    List<byte[]> blocks(String key) {
+        long hash = key(key);
+        List<byte[]> blocks = new ArrayList<>();
+
+        // Entries of a hash are adjacent, the search lands on the first one
+        for (int entry = firstEntry(hash); entry < entries() && hashAt(entry) == hash; entry++) {
+            int position = entry * ENTRY_SIZE + Long.BYTES;
+            byte[] block = new byte[index.getInt(position + Integer.BYTES)];
+            data.get(index.getInt(position), block);
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    /**
+     * FNV-1a, stable across JVMs unlike {@link String#hashCode()} and wide enough to rarely collide
+     */
+    static long key(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private int firstEntry(long hash) {
+        int low = 0;
+        int high = entries();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hashAt(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int entries() {
+        return index.capacity() / ENTRY_SIZE;
+    }
+
+    private long hashAt(int entry) {
+        return index.getLong(entry * ENTRY_SIZE);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void force(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows cannot open a directory, its renames are written through
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        // The mapping outlives the channel
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
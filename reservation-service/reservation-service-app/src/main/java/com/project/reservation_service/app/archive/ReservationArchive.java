@@ -0,0 +1,185 @@
+package com.project.reservation_service.app.archive;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.reservation_service.api.dto.ReservationDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Finished reservations moved out of the database, kept in append-only compressed segments on disk.
+ * Every archiving run writes a new segment, segments are never modified afterwards, and a customer's history is
+ * read from the blocks the segment indexes point to. Segments written by other instances sharing the directory
+ * are picked up on the next lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationArchive {
+
+    /**
+     * Order of a customer history, the same as the live listings
+     */
+    public static final Comparator<ReservationDTO> HISTORY_ORDER = Comparator.comparing(ReservationDTO::getDate)
+            .thenComparing(ReservationDTO::getId)
+            .reversed();
+
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("'segment-'yyyyMMdd-HHmmss-SSS");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${reservation.archive.directory:archive}")
+    private Path directory;
+
+    private volatile List<ArchiveSegment> segments = List.of();
+    private FileTime scannedAt;
+
+    /**
+     * Writes the reservations to a new segment, grouped in one block per customer
+     */
+    public void append(List<ReservationDTO> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<ReservationDTO>> byCustomer = reservations.stream()
+                .collect(Collectors.groupingBy(ReservationArchive::customer, LinkedHashMap::new, Collectors.toList()));
+
+        try {
+            ObjectWriter writer = objectMapper.writerFor(ReservationDTO.class);
+            List<ArchiveSegment.Block> blocks = new ArrayList<>();
+            for (List<ReservationDTO> customerReservations : byCustomer.values()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                Set<String> keys = new HashSet<>();
+                for (ReservationDTO reservation : customerReservations) {
+                    content.write(writer.writeValueAsBytes(reservation));
+                    content.write('\n');
+                    keys.addAll(keys(reservation));
+                }
+                blocks.add(new ArchiveSegment.Block(keys, content.toByteArray()));
+            }
+
+            synchronized (this) {
+                Files.createDirectories(directory);
+                String name = SEGMENT_NAME.format(LocalDateTime.now()) + "-" + UUID.randomUUID().toString().substring(0, 8);
+                ArchiveSegment segment = ArchiveSegment.write(directory, name, blocks);
+                segments = Stream.concat(segments.stream(), Stream.of(segment)).toList();
+                log.info("Archived {} reservations of {} customers to {}", reservations.size(), blocks.size(), name);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to archive " + reservations.size() + " reservations", e);
+        }
+    }
+
+    /**
+     * @return The archived reservations of the customer, in {@link #HISTORY_ORDER}
+     */
+    public List<ReservationDTO> findByCustomerEmail(String customerEmail) {
+        return find(emailKey(customerEmail), reservation -> customerEmail.equals(reservation.getCustomerEmail()));
+    }
+
+    /**
+     * @return The archived reservations of the customer, in {@link #HISTORY_ORDER}
+     */
+    public List<ReservationDTO> findByCustomerPhone(String customerPhone) {
+        return find(phoneKey(customerPhone), reservation -> customerPhone.equals(reservation.getCustomerPhone()));
+    }
+
+    private List<ReservationDTO> find(String key, Predicate<ReservationDTO> matches) {
+        ObjectReader reader = objectMapper.readerFor(ReservationDTO.class);
+
+        // A run interrupted before deleting its rows archives them again, ids tell the copies apart
+        Map<Long, ReservationDTO> found = new HashMap<>();
+        for (ArchiveSegment segment : segments()) {
+            for (byte[] block : segment.blocks(key)) {
+                try (MappingIterator<ReservationDTO> reservations = reader.readValues(new GZIPInputStream(new ByteArrayInputStream(block)))) {
+                    while (reservations.hasNext()) {
+                        ReservationDTO reservation = reservations.next();
+                        if (matches.test(reservation)) {
+                            found.putIfAbsent(reservation.getId(), reservation);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to read archive segment " + segment.name(), e);
+                }
+            }
+        }
+
+        return found.values().stream().sorted(HISTORY_ORDER).toList();
+    }
+
+    /**
+     * Opens the segments not opened yet, when the directory changed since the last scan
+     */
+    private synchronized List<ArchiveSegment> segments() {
+        try {
+            FileTime modifiedAt = Files.getLastModifiedTime(directory);
+            if (modifiedAt.equals(scannedAt)) {
+                return segments;
+            }
+
+            Set<String> opened = segments.stream().map(ArchiveSegment::name).collect(Collectors.toSet());
+            List<ArchiveSegment> scanned = new ArrayList<>(segments);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path index : files.filter(file -> file.toString().endsWith(ArchiveSegment.INDEX_SUFFIX)).sorted().toList()) {
+                    String name = index.getFileName().toString().replace(ArchiveSegment.INDEX_SUFFIX, "");
+                    if (!opened.contains(name)) {
+                        scanned.add(ArchiveSegment.open(directory.resolve(name + ArchiveSegment.DATA_SUFFIX), index));
+                    }
+                }
+            }
+
+            segments = List.copyOf(scanned);
+            scannedAt = modifiedAt;
+            return segments;
+        } catch (NoSuchFileException e) {
+            // Nothing archived yet
+            return segments;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the reservation archive " + directory, e);
+        }
+    }
+
+    private static String customer(ReservationDTO reservation) {
+        return reservation.getCustomerEmail() != null ? emailKey(reservation.getCustomerEmail()) : phoneKey(reservation.getCustomerPhone());
+    }
+
+    private static Set<String> keys(ReservationDTO reservation) {
+        Set<String> keys = new HashSet<>();
+        if (reservation.getCustomerEmail() != null) {
+            keys.add(emailKey(reservation.getCustomerEmail()));
+        }
+        if (reservation.getCustomerPhone() != null) {
+            keys.add(phoneKey(reservation.getCustomerPhone()));
+        }
+        return keys;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+
+    private static String phoneKey(String phone) {
+        return "phone:" + phone;
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.reservation_service.app.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Plain insert, failing on an existing key where save() would merge into it
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, request_hash, created_at, claimed_at, expires_at) "
+            + "VALUES (:key, :requestHash, :createdAt, :createdAt, :expiresAt)", nativeQuery = true)
+    int insert(@Param("key") String key,
+               @Param("requestHash") String requestHash,
+               @Param("createdAt") LocalDateTime createdAt,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Claims again a key whose request never completed, once the previous claim is older than its lease
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.claimedAt = :claimedAt "
+            + "where r.key = :key and r.requestHash = :requestHash and r.responseBody is null and r.claimedAt < :staleBefore")
+    int takeOver(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Joins the transaction of the request, nothing is completed when the claim was taken over meanwhile
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseBody = :responseBody "
+            + "where r.key = :key and r.claimedAt = :claimedAt and r.responseBody is null")
+    int complete(@Param("key") String key,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.claimedAt = :claimedAt and r.responseBody is null")
+    int release(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
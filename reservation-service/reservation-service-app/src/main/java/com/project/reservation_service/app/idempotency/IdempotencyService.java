@@ -0,0 +1,203 @@
+package com.project.reservation_service.app.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.reservation_service.api.exception.IdempotencyKeyReusedException;
+import com.project.reservation_service.api.exception.IdempotentRequestInProgressException;
+import com.project.reservation_service.api.exception.InvalidIdempotencyKeyException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a request at most once per Idempotency-Key, replaying the stored response to any retry until the key expires.
+ * Keys are claimed in the database so that every instance sees them, completed keys are also kept in a small local cache.
+ * <p>
+ * The response is stored by the transaction committing the request, so a claim without response means nothing was
+ * committed. Such a claim, left by a crashed instance, is taken over by a retry once older than its lease.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${idempotency.lease:1m}")
+    private Duration lease;
+
+    @Value("${idempotency.cache-size:10000}")
+    private Integer cacheSize;
+
+    /**
+     * Completed records only, those never change until they expire
+     */
+    private Map<String, IdempotencyRecord> cache;
+
+    @PostConstruct
+    void start() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * @param request      The request body, a retry must send the same one
+     * @param responseType Type the stored response is read back as
+     * @param action       Processes the request, called only when the key is not taken. It hands its response to the
+     *                     given consumer within the transaction committing the request
+     * @return The response of the first request sent with the key
+     */
+    public <T> T execute(String key, Object request, Class<T> responseType, Function<Consumer<T>, T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must hold between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+
+        Optional<T> replayed = replay(key, requestHash, responseType);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
+        LocalDateTime claimedAt = claim(key, requestHash);
+        if (claimedAt == null) {
+            // Another instance claimed the key in between
+            return replay(key, requestHash, responseType).orElseThrow(IdempotentRequestInProgressException::new);
+        }
+
+        AtomicReference<String> stored = new AtomicReference<>();
+        T response;
+        try {
+            response = action.apply(completed -> {
+                String responseBody = write(completed);
+                if (repository.complete(key, claimedAt, responseBody) == 0) {
+                    // The claim outlived its lease and was taken over, the retry processes the request instead
+                    throw new IdempotentRequestInProgressException();
+                }
+                stored.set(responseBody);
+            });
+        } catch (RuntimeException e) {
+            // Nothing was committed, let the client retry with the same key
+            repository.release(key, claimedAt);
+            throw e;
+        }
+
+        if (stored.get() == null) {
+            throw new IllegalStateException("The response to Idempotency-Key " + key + " was not stored");
+        }
+
+        cache.put(key, IdempotencyRecord.builder()
+                .key(key)
+                .requestHash(requestHash)
+                .responseBody(stored.get())
+                .createdAt(claimedAt)
+                .claimedAt(claimedAt)
+                .expiresAt(claimedAt.plus(ttl))
+                .build());
+
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval:10m}")
+    public void sweepExpired() {
+        int swept = repository.deleteExpired(LocalDateTime.now());
+        if (swept > 0) {
+            log.info("Swept {} expired idempotency keys", swept);
+        }
+    }
+
+    private <T> Optional<T> replay(String key, String requestHash, Class<T> responseType) {
+        IdempotencyRecord record = cache.get(key);
+        if (record == null || record.isExpired()) {
+            record = repository.findById(key)
+                    .filter(found -> !found.isExpired())
+                    .orElse(null);
+        }
+
+        if (record == null) {
+            return Optional.empty();
+        }
+
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+
+        if (record.getResponseBody() == null) {
+            if (record.getClaimedAt().isBefore(LocalDateTime.now().minus(lease))) {
+                // Abandoned, the caller takes the claim over
+                return Optional.empty();
+            }
+            throw new IdempotentRequestInProgressException();
+        }
+
+        cache.put(key, record);
+        log.info("Replaying the response stored for Idempotency-Key {}", key);
+        return Optional.of(read(record.getResponseBody(), responseType));
+    }
+
+    /**
+     * @return The time the key was claimed at, null when it is taken
+     */
+    private LocalDateTime claim(String key, String requestHash) {
+        // Stored as is by the database, a completion matches its claim by this time
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        // An expired key not swept yet is free again
+        repository.deleteIfExpired(key, now);
+
+        try {
+            repository.insert(key, requestHash, now, now.plus(ttl));
+            return now;
+        } catch (DataIntegrityViolationException e) {
+            return repository.takeOver(key, requestHash, now, now.minus(lease)) == 1 ? now : null;
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash the request", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store the response", e);
+        }
+    }
+
+    private <T> T read(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read the stored response", e);
+        }
+    }
+}
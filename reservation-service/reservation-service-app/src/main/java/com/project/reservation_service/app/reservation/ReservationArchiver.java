@@ -0,0 +1,68 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.app.archive.ReservationArchive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves finished reservations past the retention window from the database to the archive, one segment per batch.
+ * A batch is deleted only once its segment is written: a failure in between leaves the rows in both places,
+ * which the archive lookups tolerate, and never loses one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationArchiver {
+
+    static final Set<ReservationStatus> FINISHED_STATUSES = EnumSet.of(ReservationStatus.COMPLETED, ReservationStatus.CANCELED);
+
+    private final ReservationRepository repository;
+    private final ReservationArchive archive;
+    private final ReservationCache cache;
+
+    @Value("${reservation.archive.retention:365d}")
+    private Duration retention;
+
+    @Value("${reservation.archive.batch-size:10000}")
+    private Integer batchSize;
+
+    /**
+     * @return The number of reservations archived
+     */
+    @Scheduled(cron = "${reservation.archive.cron:0 0 4 * * *}")
+    public int archiveFinished() {
+        LocalDate before = LocalDate.now().minusDays(retention.toDays());
+        int archived = 0;
+
+        List<ReservationDTO> batch;
+        long afterId = 0;
+        do {
+            batch = repository.findDTOsToArchive(FINISHED_STATUSES, before, afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            archive.append(batch);
+            List<Long> ids = batch.stream().map(ReservationDTO::getId).toList();
+            archived += repository.deleteArchived(ids, FINISHED_STATUSES);
+            // The history pages keep their content, but the reservations are no longer found by id
+            batch.forEach(reservation -> cache.evict(reservation.getId(), reservation.getCustomerEmail(), reservation.getCustomerPhone()));
+            afterId = ids.get(ids.size() - 1);
+        } while (batch.size() == batchSize);
+
+        log.info("Archived {} reservations finished before {}", archived, before);
+        return archived;
+    }
+}
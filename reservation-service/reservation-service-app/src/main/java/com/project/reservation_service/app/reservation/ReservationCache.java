@@ -0,0 +1,147 @@
+package com.project.reservation_service.app.reservation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.reservation_service.api.dto.ReservationDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near cache of the reservations read by id and of the customer history pages, the most frequent reads.
+ * Both caches are bounded by the number of reservations they hold and evict with W-TinyLFU, which keeps the
+ * frequently read entries even when a burst of one-off reads goes through.
+ * <p>
+ * Every change of a reservation evicts its id and the pages of its customer, right away and again once the change
+ * is committed: a read running in between may have cached the former state. Entries also expire after a while,
+ * which bounds how long a read racing the second eviction can serve a stale entry.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reservation.cache.max-reservations:50000}")
+    private Long maxReservations;
+
+    @Value("${reservation.cache.max-customer-reservations:200000}")
+    private Long maxCustomerReservations;
+
+    @Value("${reservation.cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, ReservationDTO> byId;
+
+    /**
+     * The pages read of a customer, all evicted at once when one of their reservations changes
+     */
+    private Cache<Customer, Map<Page, Window<ReservationDTO>>> byCustomer;
+
+    record Customer(String key, String value) {
+
+        static Customer email(String email) {
+            return new Customer("email", email);
+        }
+
+        static Customer phone(String phone) {
+            return new Customer("phone", phone);
+        }
+    }
+
+    private record Page(ScrollPosition position, int size) {
+    }
+
+    @PostConstruct
+    void start() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxReservations)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        byCustomer = Caffeine.newBuilder()
+                .maximumWeight(maxCustomerReservations)
+                .<Customer, Map<Page, Window<ReservationDTO>>>weigher((customer, pages) -> 1 + pages.values()
+                        .stream()
+                        .mapToInt(Window::size)
+                        .sum())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "reservation.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byCustomer, "reservation.by-customer");
+    }
+
+    /**
+     * @param loader Reads the reservation on a miss, a failure is not cached
+     */
+    public ReservationDTO getById(Long id, Function<Long, ReservationDTO> loader) {
+        return byId.get(id, loader);
+    }
+
+    public Window<ReservationDTO> getCustomerPage(Customer customer,
+                                                  ScrollPosition position,
+                                                  int size,
+                                                  Supplier<Window<ReservationDTO>> loader) {
+        Page page = new Page(position, size);
+        Map<Page, Window<ReservationDTO>> pages = byCustomer.getIfPresent(customer);
+        Window<ReservationDTO> window = pages == null ? null : pages.get(page);
+        if (window != null) {
+            return window;
+        }
+
+        Window<ReservationDTO> loaded = loader.get();
+        // Pages are replaced rather than changed, so that the customer entry is weighed again
+        byCustomer.asMap().merge(customer, Map.of(page, loaded), (current, added) -> {
+            Map<Page, Window<ReservationDTO>> merged = new HashMap<>(current);
+            merged.putAll(added);
+            return Map.copyOf(merged);
+        });
+        return loaded;
+    }
+
+    public void evict(Long id, String customerEmail, String customerPhone) {
+        evictNow(id, customerEmail, customerPhone);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, customerEmail, customerPhone);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+        byCustomer.invalidateAll();
+    }
+
+    private void evictNow(Long id, String customerEmail, String customerPhone) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (customerEmail != null) {
+            byCustomer.invalidate(Customer.email(customerEmail));
+        }
+        if (customerPhone != null) {
+            byCustomer.invalidate(Customer.phone(customerPhone));
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.project.reservation_service.app.reservation;
 
+import com.project.reservation_service.api.dto.ReservationCountsDTO;
 import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.dto.TransitionResultDTO;
+import com.project.reservation_service.api.dto.requests.BatchSearchReservationsRequest;
+import com.project.reservation_service.api.dto.requests.BulkTransitionRequest;
 import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
 import com.project.reservation_service.api.dto.requests.SearchReservationsRequest;
 import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.app.idempotency.IdempotencyService;
+import com.project.restaurant_service.api.pagination.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
@@ -27,22 +43,35 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Tag(name = "Reservations", description = "Reservation Management API")
 public class ReservationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ReservationService service;
+    private final IdempotencyService idempotencyService;
+    private final ReservationExporter exporter;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Retrieve all reservations")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reservations"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
-    public CollectionModel<EntityModel<ReservationDTO>> getAll() {
-        List<EntityModel<ReservationDTO>> reservations = service.getAll().stream()
-                .map(this::toEntityModel)
-                .toList();
+    public CollectionModel<EntityModel<ReservationDTO>> getAll(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size
+    ) {
+        KeysetScrollPosition position = KeysetCursor.position(after, before, "id");
+        Window<ReservationDTO> reservations = service.getAll(position, KeysetCursor.pageSize(size));
 
-        return CollectionModel.of(reservations,
-                linkTo(methodOn(ReservationController.class).getAll()).withSelfRel());
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getAll(after, before, size)).withSelfRel().expand());
+        KeysetCursor.addPageLinks(links, reservations, position,
+                (pageAfter, pageBefore) -> linkTo(methodOn(ReservationController.class).getAll(pageAfter, pageBefore, size)));
+
+        return toCollectionModel(reservations, links);
     }
 
     @GetMapping("/{id}")
@@ -62,16 +91,25 @@ public class ReservationController {
     @Operation(summary = "Retrieve reservations by customer phone number")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reservations"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
-    public CollectionModel<EntityModel<ReservationDTO>> getAllForCustomerByPhone(@PathVariable String phone) {
-        List<EntityModel<ReservationDTO>> reservations = service.getReservationsByCustomerPhone(phone).stream()
-                .map(this::toEntityModel)
-                .toList();
+    public CollectionModel<EntityModel<ReservationDTO>> getAllForCustomerByPhone(
+            @PathVariable String phone,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size
+    ) {
+        KeysetScrollPosition position = KeysetCursor.position(after, before, "date", "id");
+        Window<ReservationDTO> reservations = service.getReservationsByCustomerPhone(phone, position, KeysetCursor.pageSize(size));
 
-        return CollectionModel.of(reservations,
-                linkTo(methodOn(ReservationController.class).getAllForCustomerByPhone(phone)).withSelfRel(),
-                linkTo(methodOn(ReservationController.class).getAll()).withRel("all-reservations"));
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getAllForCustomerByPhone(phone, after, before, size)).withSelfRel().expand());
+        links.add(linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+        KeysetCursor.addPageLinks(links, reservations, position,
+                (pageAfter, pageBefore) -> linkTo(methodOn(ReservationController.class).getAllForCustomerByPhone(phone, pageAfter, pageBefore, size)));
+
+        return toCollectionModel(reservations, links);
     }
 
     @GetMapping("/customer/email/{email}")
@@ -79,16 +117,25 @@ public class ReservationController {
     @Operation(summary = "Retrieve reservations by customer email")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reservations"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
-    public CollectionModel<EntityModel<ReservationDTO>> getAllForCustomerByEmail(@PathVariable String email) {
-        List<EntityModel<ReservationDTO>> reservations = service.getReservationsByCustomerEmail(email).stream()
-                .map(this::toEntityModel)
-                .toList();
+    public CollectionModel<EntityModel<ReservationDTO>> getAllForCustomerByEmail(
+            @PathVariable String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size
+    ) {
+        KeysetScrollPosition position = KeysetCursor.position(after, before, "date", "id");
+        Window<ReservationDTO> reservations = service.getReservationsByCustomerEmail(email, position, KeysetCursor.pageSize(size));
 
-        return CollectionModel.of(reservations,
-                linkTo(methodOn(ReservationController.class).getAllForCustomerByEmail(email)).withSelfRel(),
-                linkTo(methodOn(ReservationController.class).getAll()).withRel("all-reservations"));
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getAllForCustomerByEmail(email, after, before, size)).withSelfRel().expand());
+        links.add(linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+        KeysetCursor.addPageLinks(links, reservations, position,
+                (pageAfter, pageBefore) -> linkTo(methodOn(ReservationController.class).getAllForCustomerByEmail(email, pageAfter, pageBefore, size)));
+
+        return toCollectionModel(reservations, links);
     }
 
     @GetMapping("/restaurant/{restaurantId}/status/{status}")
@@ -96,20 +143,43 @@ public class ReservationController {
     @Operation(summary = "Retrieve reservations by restaurant and status")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reservations"),
-            @ApiResponse(responseCode = "400", description = "Invalid status value"),
+            @ApiResponse(responseCode = "400", description = "Invalid status value or page cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
     public CollectionModel<EntityModel<ReservationDTO>> getForRestaurantByStatus(
             @PathVariable Long restaurantId,
-            @PathVariable ReservationStatus status) {
+            @PathVariable ReservationStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size) {
 
-        List<EntityModel<ReservationDTO>> reservations = service.getReservationsByRestaurantAndStatus(restaurantId, status).stream()
-                .map(this::toEntityModel)
-                .toList();
+        KeysetScrollPosition position = KeysetCursor.position(after, before, "id");
+        Window<ReservationDTO> reservations = service.getReservationsByRestaurantAndStatus(
+                restaurantId, status, position, KeysetCursor.pageSize(size));
 
-        return CollectionModel.of(reservations,
-                linkTo(methodOn(ReservationController.class).getForRestaurantByStatus(restaurantId, status)).withSelfRel(),
-                linkTo(methodOn(ReservationController.class).getAll()).withRel("all-reservations"));
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getForRestaurantByStatus(restaurantId, status, after, before, size)).withSelfRel().expand());
+        links.add(linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+        KeysetCursor.addPageLinks(links, reservations, position,
+                (pageAfter, pageBefore) -> linkTo(methodOn(ReservationController.class)
+                        .getForRestaurantByStatus(restaurantId, status, pageAfter, pageBefore, size)));
+
+        return toCollectionModel(reservations, links);
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/counts")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Count the reservations of a restaurant on a day per slot and status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully counted reservations"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public EntityModel<ReservationCountsDTO> getCountsForRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return EntityModel.of(service.getCountsByRestaurantAndDate(restaurantId, date),
+                linkTo(methodOn(ReservationController.class).getCountsForRestaurant(restaurantId, date)).withSelfRel());
     }
 
     @PostMapping("/search")
@@ -121,17 +191,111 @@ public class ReservationController {
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
     public CollectionModel<EntityModel<ReservationDTO>> search(@Valid @RequestBody SearchReservationsRequest request) {
+        ReservationLinks links = ReservationLinks.fromCurrentRequest();
         List<EntityModel<ReservationDTO>> reservations = service.getReservationsByRestaurantAndDateAndTime(
                         request.getRestaurantId(),
                         request.getDate(),
                         request.getTime()
                 ).stream()
-                .map(this::toEntityModel)
+                .map(reservation -> toEntityModel(reservation, links))
                 .toList();
 
         return CollectionModel.of(reservations,
                 linkTo(methodOn(ReservationController.class).search(request)).withSelfRel(),
-                linkTo(methodOn(ReservationController.class).getAll()).withRel("all-reservations"));
+                linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+    }
+
+    @PostMapping("/search/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Search reservations of several restaurants by date, and optionally time, in one call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved reservations"),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<EntityModel<ReservationDTO>> searchBatch(@Valid @RequestBody BatchSearchReservationsRequest request) {
+        ReservationLinks links = ReservationLinks.fromCurrentRequest();
+        List<EntityModel<ReservationDTO>> reservations = service.getReservationsByRestaurantsAndDateAndTime(
+                        request.getRestaurantIds(),
+                        request.getDate(),
+                        request.getTime()
+                ).stream()
+                .map(reservation -> toEntityModel(reservation, links))
+                .toList();
+
+        return CollectionModel.of(reservations,
+                linkTo(methodOn(ReservationController.class).searchBatch(request)).withSelfRel(),
+                linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+    }
+
+    @GetMapping("/export")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Export the reservations of a restaurant and/or date range as newline delimited JSON, "
+            + "gzipped when the client accepts it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations streamed one per line, in id order"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public void export(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        // Written from the request thread as rows are read, an export may run far longer than an async request may
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream output = new GZIPOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
+            exporter.export(restaurantId, from, to, output);
+            output.finish();
+        } else {
+            exporter.export(restaurantId, from, to, response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/events/active")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Page through the current state of every reservation holding its table from a date on, used by consumers to catch up")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of reservation snapshots"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<ReservationEventDTO> getActiveReservationEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "500") Integer size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 1000));
+        List<ReservationEventDTO> events = service.getActiveReservationSnapshots(from, after, pageSize);
+
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getActiveReservationEvents(from, after, size)).withSelfRel());
+        // A full page means there may be more, the next one starts after its last reservation
+        if (events.size() == pageSize) {
+            Long last = events.get(events.size() - 1).getReservationId();
+            links.add(linkTo(methodOn(ReservationController.class).getActiveReservationEvents(from, last, size)).withRel("next"));
+        }
+
+        return CollectionModel.of(events, links);
+    }
+
+    @GetMapping("/events/active/restaurant/{restaurantId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get the current state of every reservation of a restaurant holding its table on a date, used by consumers to rebuild that day")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the reservation snapshots of the day"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<ReservationEventDTO> getActiveReservationEventsOfDay(
+            @PathVariable Long restaurantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        // Bounded by the tables and slots of one restaurant, the day comes in one response
+        return CollectionModel.of(service.getActiveReservationSnapshots(restaurantId, date),
+                linkTo(methodOn(ReservationController.class).getActiveReservationEventsOfDay(restaurantId, date)).withSelfRel());
     }
 
     @PostMapping
@@ -141,10 +305,20 @@ public class ReservationController {
             @ApiResponse(responseCode = "201", description = "Reservation successfully created"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Validation failed"),
             @ApiResponse(responseCode = "404", description = "Restaurant not found"),
-            @ApiResponse(responseCode = "409", description = "No availability")
+            @ApiResponse(responseCode = "409", description = "No availability, or a request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request")
     })
-    public EntityModel<ReservationDTO> create(@Valid @RequestBody CreateReservationRequest request) {
-        return toEntityModel(service.create(request));
+    public EntityModel<ReservationDTO> create(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateReservationRequest request
+    ) {
+        // A retry sent with the same key gets the first response back without booking again
+        ReservationDTO reservation = idempotencyKey == null
+                ? service.create(request)
+                : idempotencyService.execute(idempotencyKey, request, ReservationDTO.class,
+                        stored -> service.create(request, stored));
+
+        return toEntityModel(reservation);
     }
 
     @PatchMapping("/{id}/confirm")
@@ -199,6 +373,58 @@ public class ReservationController {
         return toEntityModel(service.completeReservation(id));
     }
 
+    @PatchMapping("/bulk/confirm")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Confirm many pending reservations at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per reservation result, those not PENDING are left untouched"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<TransitionResultDTO> bulkConfirm(@Valid @RequestBody BulkTransitionRequest request) {
+        return toTransitionResults(service.transitionAll(request.getIds(), ReservationTransition.CONFIRM),
+                linkTo(methodOn(ReservationController.class).bulkConfirm(request)).withSelfRel());
+    }
+
+    @PatchMapping("/bulk/reject")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Reject many pending reservations at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per reservation result, those not PENDING are left untouched"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<TransitionResultDTO> bulkReject(@Valid @RequestBody BulkTransitionRequest request) {
+        return toTransitionResults(service.transitionAll(request.getIds(), ReservationTransition.REJECT),
+                linkTo(methodOn(ReservationController.class).bulkReject(request)).withSelfRel());
+    }
+
+    @PatchMapping("/bulk/check-in")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Check in many confirmed reservations at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per reservation result, those not CONFIRMED are left untouched"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<TransitionResultDTO> bulkCheckIn(@Valid @RequestBody BulkTransitionRequest request) {
+        return toTransitionResults(service.transitionAll(request.getIds(), ReservationTransition.CHECK_IN),
+                linkTo(methodOn(ReservationController.class).bulkCheckIn(request)).withSelfRel());
+    }
+
+    @PatchMapping("/bulk/complete")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Complete many checked-in reservations at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per reservation result, those not CHECKED_IN are left untouched"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public CollectionModel<TransitionResultDTO> bulkComplete(@Valid @RequestBody BulkTransitionRequest request) {
+        return toTransitionResults(service.transitionAll(request.getIds(), ReservationTransition.COMPLETE),
+                linkTo(methodOn(ReservationController.class).bulkComplete(request)).withSelfRel());
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Cancel a reservation")
@@ -212,86 +438,36 @@ public class ReservationController {
         return toEntityModel(service.cancelReservation(id));
     }
 
-    /**
-     * Generates HATEOAS links based on reservation status.
-     * Following HATEOAS principles: links guide what actions are available.
-     *
-     * @param reservationDTO DTO object to enrich with links
-     * @return EntityModel with state-based hypermedia links
-     */
-    private EntityModel<ReservationDTO> toEntityModel(ReservationDTO reservationDTO) {
-        List<Link> links = new ArrayList<>();
-
-        // Self link (always present)
-        links.add(linkTo(methodOn(ReservationController.class)
-                .getById(reservationDTO.getId()))
-                .withSelfRel());
-
-        // Customer reservations links
-        links.add(linkTo(methodOn(ReservationController.class)
-                .getAllForCustomerByEmail(reservationDTO.getCustomerEmail()))
-                .withRel("customer-reservations-by-email"));
-
-        links.add(linkTo(methodOn(ReservationController.class)
-                .getAllForCustomerByPhone(reservationDTO.getCustomerPhone()))
-                .withRel("customer-reservations-by-phone"));
+    private CollectionModel<EntityModel<ReservationDTO>> toCollectionModel(Window<ReservationDTO> reservations, List<Link> links) {
+        ReservationLinks reservationLinks = ReservationLinks.fromCurrentRequest();
+        List<EntityModel<ReservationDTO>> models = reservations.stream()
+                .map(reservation -> toEntityModel(reservation, reservationLinks))
+                .toList();
 
-        // All reservations link
-        links.add(linkTo(methodOn(ReservationController.class)
-                .getAll())
-                .withRel("all-reservations"));
+        return CollectionModel.of(models, links);
+    }
 
-        // State-based action links (HATEOAS principle)
-        addStateBasedLinks(links, reservationDTO);
+    private CollectionModel<TransitionResultDTO> toTransitionResults(List<TransitionResultDTO> results, Link self) {
+        // Plain results rather than full reservation models, staff reload the list they act on anyway
+        return CollectionModel.of(results,
+                self,
+                linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+    }
 
-        return EntityModel.of(reservationDTO, links);
+    private EntityModel<ReservationDTO> toEntityModel(ReservationDTO reservationDTO) {
+        return toEntityModel(reservationDTO, ReservationLinks.fromCurrentRequest());
     }
 
     /**
-     * Add state-based action links.
-     * This is a key HATEOAS principle: only show actions that are valid for the current state.
+     * Generates HATEOAS links based on reservation status.
+     * Following HATEOAS principles: links guide what actions are available, only the transitions
+     * {@link ReservationTransition} allows from the current status are linked.
      *
-     * @param links List of links
-     * @param reservationDTO Current reservation
+     * @param reservationDTO DTO object to enrich with links
+     * @param links Links of the current request, shared by the reservations of a response
+     * @return EntityModel with state-based hypermedia links
      */
-    private void addStateBasedLinks(List<Link> links, ReservationDTO reservationDTO) {
-        ReservationStatus status = ReservationStatus.valueOf(reservationDTO.getStatus());
-
-        switch (status) {
-            case PENDING:
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .confirm(reservationDTO.getId()))
-                        .withRel("confirm"));
-
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .reject(reservationDTO.getId()))
-                        .withRel("reject"));
-
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .cancel(reservationDTO.getId()))
-                        .withRel("cancel"));
-                break;
-
-            case CONFIRMED:
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .checkIn(reservationDTO.getId()))
-                        .withRel("check-in"));
-
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .cancel(reservationDTO.getId()))
-                        .withRel("cancel"));
-                break;
-
-            case CHECKED_IN:
-                // CHECKED_IN → can only complete
-                links.add(linkTo(methodOn(ReservationController.class)
-                        .complete(reservationDTO.getId()))
-                        .withRel("complete"));
-                break;
-
-            case COMPLETED:
-            case CANCELED:
-                break;
-        }
+    private EntityModel<ReservationDTO> toEntityModel(ReservationDTO reservationDTO, ReservationLinks links) {
+        return EntityModel.of(reservationDTO, links.of(reservationDTO));
     }
-}
\ No newline at end of file
+}
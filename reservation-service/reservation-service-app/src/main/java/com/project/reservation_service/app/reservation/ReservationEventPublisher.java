@@ -0,0 +1,44 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationEventType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Records reservation changes in the outbox, within the transaction making the change.
+ * A rolled back change leaves no event behind and a committed one is never lost, the {@link ReservationEventRelay} delivers it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationEventPublisher {
+
+    private final ReservationOutboxRepository outboxRepository;
+    private final ReservationMapper mapper;
+    private final EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Reservation reservation, ReservationEventType type) {
+        // Flushing applies the version increment of the pending update, so that the event carries the version being committed
+        entityManager.flush();
+
+        ReservationOutboxEvent event = mapper.toOutboxEvent(reservation, type);
+        if (type == ReservationEventType.DELETED) {
+            // Deleting a row does not increment its version, the deletion still has to win over the last update
+            event.setVersion(event.getVersion() + 1);
+        }
+        outboxRepository.save(event);
+    }
+
+    /**
+     * Records events built without going through the entities, e.g. by set-based updates
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<ReservationOutboxEvent> events) {
+        outboxRepository.saveAll(events);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delivers the outbox to every restaurant-service instance in batches, oldest event first.
+ * A batch is marked published only once every instance accepted it, so delivery is at least once:
+ * consumers ignore duplicates through the event version.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationEventRelay {
+
+    static final String EVENTS_PATH = "/internal/projection/events";
+    static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    private final ReservationOutboxRepository outboxRepository;
+    private final ReservationMapper mapper;
+    private final DiscoveryClient discoveryClient;
+    private final RestClient.Builder restClientBuilder;
+
+    @Value("${reservation.events.target-service:restaurant-service}")
+    private String targetService;
+
+    @Value("${internal.token:}")
+    private String internalToken;
+
+    @Value("${reservation.events.batch-size:100}")
+    private Integer batchSize;
+
+    @Value("${reservation.events.retention:7d}")
+    private Duration retention;
+
+    private RestClient restClient;
+
+    @PostConstruct
+    void start() {
+        restClient = restClientBuilder.build();
+    }
+
+    /**
+     * Runs on the single scheduler thread, which keeps the events of a reservation in order
+     */
+    @Scheduled(fixedDelayString = "${reservation.events.relay-interval:1s}")
+    public void relay() {
+        List<ReservationOutboxEvent> batch;
+        do {
+            batch = outboxRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty() || !deliver(batch)) {
+                return;
+            }
+
+            outboxRepository.markPublished(batch.stream().map(ReservationOutboxEvent::getId).toList(), LocalDateTime.now());
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Published events are only kept for troubleshooting
+     */
+    @Scheduled(cron = "${reservation.events.purge-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        int purged = outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        log.info("Purged {} published reservation events", purged);
+    }
+
+    /**
+     * @return Whether every instance accepted the batch
+     */
+    boolean deliver(List<ReservationOutboxEvent> batch) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(targetService);
+        if (instances.isEmpty()) {
+            // Nobody to notify, an instance starting later resyncs from the snapshot anyway
+            log.debug("No {} instance to notify of {} reservation events", targetService, batch.size());
+            return true;
+        }
+
+        List<ReservationEventDTO> events = batch.stream().map(mapper::toEvent).toList();
+
+        boolean delivered = true;
+        for (ServiceInstance instance : instances) {
+            try {
+                restClient.post()
+                        .uri(instance.getUri().resolve(EVENTS_PATH))
+                        .header(INTERNAL_TOKEN_HEADER, internalToken)
+                        .body(events)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                log.warn("Unable to notify {} of {} reservation events, retrying: {}", instance.getUri(), events.size(), e.getMessage());
+                delivered = false;
+            }
+        }
+        return delivered;
+    }
+}
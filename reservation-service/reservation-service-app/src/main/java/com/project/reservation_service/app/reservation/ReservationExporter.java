@@ -0,0 +1,65 @@
+package com.project.reservation_service.app.reservation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes reservations as newline delimited JSON while they are read from the database.
+ * Rows go from the cursor to the output one at a time and the persistence context is cleared after every fetched batch,
+ * so the memory used does not depend on the number of rows exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExporter {
+
+    private final ReservationRepository repository;
+    private final ReservationMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * @param restaurantId Restaurant to export, all of them when null
+     * @param from         First date to export, inclusive, unbounded when null
+     * @param to           Last date to export, inclusive, unbounded when null
+     * @param output       Receives one JSON reservation per line, left open
+     * @return The number of reservations written
+     */
+    @Transactional(readOnly = true)
+    public long export(Long restaurantId, LocalDate from, LocalDate to, OutputStream output) throws IOException {
+        long exported = 0;
+
+        try (Stream<Reservation> reservations = repository.streamForExport(restaurantId, from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+
+            // The caller owns the output, e.g. to finish a compressed stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Reservation> rows = reservations.iterator();
+            while (rows.hasNext()) {
+                generator.writeObject(mapper.toDTO(rows.next()));
+                generator.writeRaw('\n');
+
+                if (++exported % ReservationRepository.EXPORT_FETCH_SIZE == 0) {
+                    // Exported rows are never read again, let them be collected
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+
+        log.info("Exported {} reservations (restaurant {}, from {}, to {})", exported, restaurantId, from, to);
+        return exported;
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.TemplateVariable;
+import org.springframework.hateoas.TemplateVariables;
+import org.springframework.hateoas.UriTemplate;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Builds the links of a reservation from templates of the {@link ReservationController} mappings.
+ * Links built with {@code linkTo(methodOn(...))} proxy the controller and inspect the invoked method on every call,
+ * a page of reservations did that several times per reservation. Here the base URI is resolved once per response
+ * and the links are plain string concatenations, with the same hrefs.
+ */
+final class ReservationLinks {
+
+    /**
+     * Optional paging parameters of the collection endpoints, left unexpanded as {@code linkTo} does
+     */
+    private static final TemplateVariables PAGE_PARAMETERS = new TemplateVariables(
+            TemplateVariable.requestParameter("after"),
+            TemplateVariable.requestParameter("before"),
+            TemplateVariable.requestParameter("size"));
+
+    private static final Map<ReservationTransition, String> TRANSITION_PATHS = new EnumMap<>(Map.of(
+            ReservationTransition.CONFIRM, "/confirm",
+            ReservationTransition.REJECT, "/reject",
+            ReservationTransition.CHECK_IN, "/check-in",
+            ReservationTransition.COMPLETE, "/complete",
+            // Cancelling is the DELETE of the reservation itself
+            ReservationTransition.CANCEL, ""));
+
+    private static final Map<ReservationStatus, List<ReservationTransition>> TRANSITIONS = new EnumMap<>(ReservationStatus.class);
+
+    static {
+        for (ReservationStatus status : ReservationStatus.values()) {
+            TRANSITIONS.put(status, ReservationTransition.allowedFrom(status));
+        }
+    }
+
+    private final String baseUri;
+    private final Link allReservations;
+
+    private ReservationLinks(String baseUri) {
+        this.baseUri = baseUri;
+        this.allReservations = Link.of(UriTemplate.of(baseUri, PAGE_PARAMETERS), "all-reservations");
+    }
+
+    /**
+     * @return Links resolved against the request being handled
+     */
+    static ReservationLinks fromCurrentRequest() {
+        return new ReservationLinks(linkTo(ReservationController.class).toUri().toString());
+    }
+
+    /**
+     * @return The links of a reservation: itself, its customer's reservations, all reservations,
+     * then the transitions its status allows
+     */
+    List<Link> of(ReservationDTO reservation) {
+        List<ReservationTransition> transitions = TRANSITIONS.get(ReservationStatus.valueOf(reservation.getStatus()));
+        List<Link> links = new ArrayList<>(4 + transitions.size());
+
+        String self = baseUri + "/" + reservation.getId();
+        links.add(Link.of(self, IanaLinkRelations.SELF));
+        links.add(customerLink("/customer/email/", reservation.getCustomerEmail(), "customer-reservations-by-email"));
+        links.add(customerLink("/customer/phone/", reservation.getCustomerPhone(), "customer-reservations-by-phone"));
+        links.add(allReservations);
+
+        for (ReservationTransition transition : transitions) {
+            links.add(Link.of(self + TRANSITION_PATHS.get(transition), transition.getRel()));
+        }
+        return links;
+    }
+
+    private Link customerLink(String path, String value, String rel) {
+        // Encoded as a whole segment, like linkTo encodes path variables
+        String href = baseUri + path + UriUtils.encode(value, StandardCharsets.UTF_8);
+        return Link.of(UriTemplate.of(href, PAGE_PARAMETERS), rel);
+    }
+}
@@ -1,9 +1,13 @@
 package com.project.reservation_service.app.reservation;
 
 import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.ReservationEventDTO;
 import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.reservation_service.api.enums.ReservationEventType;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 @Component
 public class ReservationMapper {
     public ReservationDTO toDTO(Reservation entity) {
@@ -22,6 +26,65 @@ public class ReservationMapper {
                 .build();
     }
 
+    public ReservationEventDTO toEvent(Reservation entity, ReservationEventType type) {
+        return ReservationEventDTO.builder()
+                .reservationId(entity.getId())
+                .restaurantId(entity.getRestaurantId())
+                .tableId(entity.getTableId())
+                .date(entity.getDate())
+                .time(entity.getTime())
+                .status(entity.getStatus())
+                .type(type)
+                .version(entity.getVersion())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public ReservationOutboxEvent toOutboxEvent(Reservation entity, ReservationEventType type) {
+        return ReservationOutboxEvent.builder()
+                .reservationId(entity.getId())
+                .restaurantId(entity.getRestaurantId())
+                .tableId(entity.getTableId())
+                .date(entity.getDate())
+                .time(entity.getTime())
+                .status(entity.getStatus())
+                .type(type)
+                .version(entity.getVersion())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Event of a reservation moved by a bulk transition, its version being the one the update wrote
+     */
+    public ReservationOutboxEvent toOutboxEvent(ReservationState state, ReservationTransition transition) {
+        return ReservationOutboxEvent.builder()
+                .reservationId(state.id())
+                .restaurantId(state.restaurantId())
+                .tableId(state.tableId())
+                .date(state.date())
+                .time(state.time())
+                .status(transition.getTo())
+                .type(transition.getEventType())
+                .version(state.version() + 1)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    public ReservationEventDTO toEvent(ReservationOutboxEvent entity) {
+        return ReservationEventDTO.builder()
+                .reservationId(entity.getReservationId())
+                .restaurantId(entity.getRestaurantId())
+                .tableId(entity.getTableId())
+                .date(entity.getDate())
+                .time(entity.getTime())
+                .status(entity.getStatus())
+                .type(entity.getType())
+                .version(entity.getVersion())
+                .occurredAt(entity.getOccurredAt())
+                .build();
+    }
+
     public Reservation toEntity(CreateReservationRequest request) {
         return Reservation.builder()
                 .restaurantId(request.getRestaurantId())
@@ -0,0 +1,61 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reservation change written in the same transaction as the change itself, published later by the {@link ReservationEventRelay}
+ */
+@Entity
+@Table(name = "reservation_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ReservationOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "reservation_time", nullable = false)
+    private LocalTime time;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private ReservationEventType type;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,59 @@
+package com.project.reservation_service.app.reservation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Creates the monthly partitions of the reservation table ahead of time, so that new reservations never pile up
+ * in the default partition. Databases without partitioning, like H2, have no partition function and are left alone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationPartitionMaintainer {
+
+    static final String PARTITION_FUNCTION = "create_reservation_partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reservation.partitions.months-ahead:12}")
+    private Integer monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reservation.partitions.check-interval:12h}",
+            initialDelayString = "${reservation.partitions.check-interval:12h}")
+    public void createUpcomingPartitions() {
+        try {
+            if (!isPartitioned()) {
+                return;
+            }
+
+            LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+            Integer created = jdbcTemplate.queryForObject("select " + PARTITION_FUNCTION + "(?, ?)", Integer.class,
+                    thisMonth, thisMonth.plusMonths(monthsAhead));
+
+            if (created != null && created > 0) {
+                log.info("Created {} reservation partitions, up to {}", created, thisMonth.plusMonths(monthsAhead));
+            }
+        } catch (DataAccessException e) {
+            // The default partition takes the reservations meanwhile, the next run moves them to their partition
+            log.warn("Unable to create the upcoming reservation partitions, retrying later: {}", e.getMessage());
+        }
+    }
+
+    boolean isPartitioned() {
+        Integer functions = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.routines where lower(routine_name) = ?", Integer.class,
+                PARTITION_FUNCTION);
+        return functions != null && functions > 0;
+    }
+}
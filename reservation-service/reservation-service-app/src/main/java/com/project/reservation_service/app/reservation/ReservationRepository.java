@@ -1,18 +1,196 @@
 package com.project.reservation_service.app.reservation;
 
+import com.project.reservation_service.api.dto.ReservationDTO;
 import com.project.reservation_service.api.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
-    List<Reservation> findByRestaurantIdAndDateAndTime(Long restaurantId, LocalDate date, LocalTime time);
-    List<Reservation> findByCustomerPhoneOrderByDateDesc(String customerPhone);
-    List<Reservation> findByCustomerEmailOrderByDateDesc(String customerEmail);
-    List<Reservation> findByRestaurantIdAndStatus(Long restaurantId, ReservationStatus status);
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationTransitionRepository {
+    /**
+     * Selects reservations straight into their DTO, without managed entities to track
+     */
+    String SELECT_DTO = "select new com.project.reservation_service.api.dto.ReservationDTO("
+            + "r.id, r.restaurantId, r.tableId, r.customerName, r.customerEmail, r.customerPhone, "
+            + "r.date, r.time, r.numberOfPeople, cast(r.status as String), r.canceledAt) "
+            + "from Reservation r ";
+
+    @Query(SELECT_DTO + "where r.id = :id")
+    Optional<ReservationDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "where r.restaurantId = :restaurantId and r.date = :date and r.time = :time")
+    List<ReservationDTO> findDTOsByRestaurantIdAndDateAndTime(@Param("restaurantId") Long restaurantId,
+                                                             @Param("date") LocalDate date,
+                                                             @Param("time") LocalTime time);
+
+    @Query(SELECT_DTO + "where r.restaurantId = :restaurantId and r.date = :date")
+    List<ReservationDTO> findDTOsByRestaurantIdAndDate(@Param("restaurantId") Long restaurantId,
+                                                      @Param("date") LocalDate date);
+
+    @Query(SELECT_DTO + "where r.restaurantId in :restaurantIds and r.date = :date and r.time = :time")
+    List<ReservationDTO> findDTOsByRestaurantIdInAndDateAndTime(@Param("restaurantIds") Collection<Long> restaurantIds,
+                                                               @Param("date") LocalDate date,
+                                                               @Param("time") LocalTime time);
+
+    @Query(SELECT_DTO + "where r.restaurantId in :restaurantIds and r.date = :date")
+    List<ReservationDTO> findDTOsByRestaurantIdInAndDate(@Param("restaurantIds") Collection<Long> restaurantIds,
+                                                        @Param("date") LocalDate date);
+
+    // Listings are read one keyset window at a time, the id breaks ties so that the sort is stable
+    Window<Reservation> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+    Window<Reservation> findByCustomerPhoneOrderByDateDescIdDesc(String customerPhone, ScrollPosition position, Limit limit);
+    Window<Reservation> findByCustomerEmailOrderByDateDescIdDesc(String customerEmail, ScrollPosition position, Limit limit);
+    Window<Reservation> findByRestaurantIdAndStatusOrderByIdAsc(Long restaurantId, ReservationStatus status, ScrollPosition position, Limit limit);
+    List<Reservation> findByStatusInAndDateGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+            Collection<ReservationStatus> statuses,
+            LocalDate from,
+            Long afterId,
+            Limit limit
+    );
+    List<Reservation> findByRestaurantIdAndDateAndStatusInOrderByIdAsc(Long restaurantId,
+                                                                   LocalDate date,
+                                                                   Collection<ReservationStatus> statuses);
+
+    /**
+     * Rows fetched per database round trip while exporting
+     */
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Reads the reservations of a restaurant and/or date range through a database cursor, in id order.
+     * The stream must be consumed and closed within a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    // Typed for Postgres, which cannot tell the type of a parameter only compared to null
+    @Query("select r from Reservation r "
+            + "where (cast(:restaurantId as Long) is null or r.restaurantId = :restaurantId) "
+            + "and (cast(:from as LocalDate) is null or r.date >= :from) "
+            + "and (cast(:to as LocalDate) is null or r.date <= :to) "
+            + "order by r.id")
+    Stream<Reservation> streamForExport(@Param("restaurantId") Long restaurantId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    /**
+     * Finished reservations dated before a day, in id order, for the archive
+     */
+    @Query(SELECT_DTO + "where r.status in :statuses and r.date < :before and r.id > :afterId order by r.id")
+    List<ReservationDTO> findDTOsToArchive(@Param("statuses") Collection<ReservationStatus> statuses,
+                                           @Param("before") LocalDate before,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    /**
+     * Deletes archived reservations, unless they moved to another status meanwhile
+     *
+     * @return The number of reservations deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Reservation r where r.id in :ids and r.status in :statuses")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<ReservationStatus> statuses);
+
+    /**
+     * Selects what a bulk transition needs of reservations
+     */
+    String SELECT_STATE = "select new com.project.reservation_service.app.reservation.ReservationState("
+            + "r.id, r.restaurantId, r.tableId, r.date, r.time, r.status, r.version, r.customerEmail, r.customerPhone) "
+            + "from Reservation r ";
+
+    /**
+     * Lock timeout asking to skip the rows locked by other transactions
+     */
+    String SKIP_LOCKED = "-2";
+
+    @Query(SELECT_STATE + "where r.id in :ids")
+    List<ReservationState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Pending reservations left unconfirmed for too long or whose slot already started, oldest first.
+     * The rows are locked until the end of the transaction, rows another transaction holds are skipped,
+     * so that concurrent sweepers split the work instead of waiting on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query(SELECT_STATE + "where r.status = com.project.reservation_service.api.enums.ReservationStatus.PENDING "
+            + "and (r.createdAt < :createdBefore or r.date < :today or (r.date = :today and r.time < :now)) "
+            + "order by r.id")
+    List<ReservationState> claimStalePending(@Param("createdBefore") LocalDateTime createdBefore,
+                                             @Param("today") LocalDate today,
+                                             @Param("now") LocalTime now,
+                                             Limit limit);
+
+    /**
+     * Checked in reservations whose slot started before a time, oldest first, locked like {@link #claimStalePending}
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query(SELECT_STATE + "where r.status = com.project.reservation_service.api.enums.ReservationStatus.CHECKED_IN "
+            + "and (r.date < :date or (r.date = :date and r.time < :time)) "
+            + "order by r.id")
+    List<ReservationState> claimCheckedInBefore(@Param("date") LocalDate date,
+                                                @Param("time") LocalTime time,
+                                                Limit limit);
+
+    /**
+     * Moves every listed reservation still in one of the expected statuses in one guarded statement,
+     * bumping their version
+     *
+     * @return The number of reservations moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Reservation r set r.status = :to, r.version = r.version + 1, r.updatedAt = :now "
+            + "where r.id in :ids and r.status in :from")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+                      @Param("from") Collection<ReservationStatus> from,
+                      @Param("to") ReservationStatus to,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Same as {@link #transitionAll} for a transition canceling the reservations, which also records when
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Reservation r set r.status = :to, r.version = r.version + 1, r.updatedAt = :now, "
+            + "r.canceledAt = :now "
+            + "where r.id in :ids and r.status in :from")
+    int cancelAll(@Param("ids") Collection<Long> ids,
+                  @Param("from") Collection<ReservationStatus> from,
+                  @Param("to") ReservationStatus to,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * Applies a transition to every listed reservation still in a status it starts from
+     *
+     * @return The number of reservations moved
+     */
+    default int transitionAll(Collection<Long> ids, ReservationTransition transition, LocalDateTime now) {
+        return transition.cancels()
+                ? cancelAll(ids, transition.getFrom(), transition.getTo(), now)
+                : transitionAll(ids, transition.getFrom(), transition.getTo(), now);
+    }
 
 }
@@ -1,10 +1,16 @@
 package com.project.reservation_service.app.reservation;
 
+import com.project.reservation_service.api.dto.ReservationCountsDTO;
 import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.dto.TransitionResultDTO;
 import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.reservation_service.api.enums.ReservationEventType;
 import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.api.enums.TransitionOutcome;
 import com.project.reservation_service.api.exception.InvalidStatusTransitionException;
 import com.project.reservation_service.api.exception.ReservationNotFoundException;
+import com.project.reservation_service.app.archive.ReservationArchive;
 import com.project.restaurant_service.api.dto.TableDTO;
 import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
 import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
@@ -12,76 +18,172 @@ import com.project.restaurant_service.api.exception.NoAvailabilityException;
 import com.project.restaurant_service.client.RestaurantServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationService {
 
+    private static final List<ReservationStatus> ACTIVE_STATUSES = Arrays.stream(ReservationStatus.values())
+            .filter(ReservationStatus::holdsTable)
+            .toList();
+
+    /**
+     * Unique index allowing a single active reservation per table and slot
+     */
+    private static final String ACTIVE_SLOT_CONSTRAINT = "uk_reservation_active_slot";
+
     private final ReservationRepository repository;
     private final ReservationMapper mapper;
     private final RestaurantServiceClient restaurantServiceClient;
-
-    @Transactional
+    private final ReservationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationArchive archive;
+    private final ReservationSlotCounter slotCounter;
+    private final ReservationCache cache;
+
+    /**
+     * Not transactional, like the customer lookups: a cache hit must not take a connection, a miss runs a single query
+     */
     public ReservationDTO getById(Long id) {
-        Reservation entity = repository.findById(id)
-                .orElseThrow(ReservationNotFoundException::new);
-        return mapper.toDTO(entity);
+        return cache.getById(id, key -> repository.findDTOById(key)
+                .orElseThrow(ReservationNotFoundException::new));
     }
 
-    @Transactional
-    public List<ReservationDTO> getAll() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public Window<ReservationDTO> getAll(ScrollPosition position, int size) {
+        return repository.findAllByOrderByIdAsc(position, Limit.of(size))
+                .map(mapper::toDTO);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public ReservationCountsDTO getCountsByRestaurantAndDate(Long restaurantId, LocalDate date) {
+        return slotCounter.countDay(restaurantId, date);
+    }
+
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByRestaurantAndDateAndTime(
         Long restaurantId,
         LocalDate date,
         LocalTime time
     ) {
-        return repository.findByRestaurantIdAndDateAndTime(restaurantId, date, time)
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+        // Without a time the whole day is returned, which lets callers load a day in one round trip
+        return time == null
+                ? repository.findDTOsByRestaurantIdAndDate(restaurantId, date)
+                : repository.findDTOsByRestaurantIdAndDateAndTime(restaurantId, date, time);
     }
 
-    @Transactional
-    public List<ReservationDTO> getReservationsByCustomerPhone(String customerPhone) {
-        return repository.findByCustomerPhoneOrderByDateDesc(customerPhone)
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsByRestaurantsAndDateAndTime(
+        Collection<Long> restaurantIds,
+        LocalDate date,
+        LocalTime time
+    ) {
+        return time == null
+                ? repository.findDTOsByRestaurantIdInAndDate(restaurantIds, date)
+                : repository.findDTOsByRestaurantIdInAndDateAndTime(restaurantIds, date, time);
     }
 
-    @Transactional
-    public List<ReservationDTO> getReservationsByCustomerEmail(String customerEmail) {
-        return repository.findByCustomerEmailOrderByDateDesc(customerEmail)
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+    public Window<ReservationDTO> getReservationsByCustomerPhone(String customerPhone, ScrollPosition position, int size) {
+        return cache.getCustomerPage(ReservationCache.Customer.phone(customerPhone), position, size, () -> {
+            Window<ReservationDTO> live = repository.findByCustomerPhoneOrderByDateDescIdDesc(customerPhone, position, Limit.of(size))
+                    .map(mapper::toDTO);
+            return withArchived(live, archive.findByCustomerPhone(customerPhone), position, size);
+        });
     }
 
-    @Transactional
-    public List<ReservationDTO> getReservationsByRestaurantAndStatus(Long restaurantId, ReservationStatus status) {
-        return repository.findByRestaurantIdAndStatus(restaurantId, status)
-                .stream()
-                .map(mapper::toDTO)
+    public Window<ReservationDTO> getReservationsByCustomerEmail(String customerEmail, ScrollPosition position, int size) {
+        return cache.getCustomerPage(ReservationCache.Customer.email(customerEmail), position, size, () -> {
+            Window<ReservationDTO> live = repository.findByCustomerEmailOrderByDateDescIdDesc(customerEmail, position, Limit.of(size))
+                    .map(mapper::toDTO);
+            return withArchived(live, archive.findByCustomerEmail(customerEmail), position, size);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Window<ReservationDTO> getReservationsByRestaurantAndStatus(
+        Long restaurantId,
+        ReservationStatus status,
+        ScrollPosition position,
+        int size
+    ) {
+        return repository.findByRestaurantIdAndStatusOrderByIdAsc(restaurantId, status, position, Limit.of(size))
+                .map(mapper::toDTO);
+    }
+
+    /**
+     * Merges the archived reservations of a customer into a window of their live ones.
+     * The live window holds the nearest live rows past the position, so the nearest rows of both past it make the page.
+     * The result only holds DTOs, not the entities the live window was read as, since it may be cached.
+     */
+    private Window<ReservationDTO> withArchived(Window<ReservationDTO> live,
+                                                List<ReservationDTO> archived,
+                                                ScrollPosition position,
+                                                int size) {
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        ReservationDTO from = keyset.isInitial() ? null : ReservationDTO.builder()
+                .date((LocalDate) keyset.getKeys().get("date"))
+                .id((Long) keyset.getKeys().get("id"))
+                .build();
+
+        // Archived rows whose deletion failed are still live, the live copy wins
+        Set<Long> liveIds = live.stream().map(ReservationDTO::getId).collect(Collectors.toSet());
+        Stream<ReservationDTO> pastPosition = archived.stream()
+                .filter(reservation -> !liveIds.contains(reservation.getId()))
+                .filter(reservation -> from == null || (keyset.scrollsBackward()
+                        ? ReservationArchive.HISTORY_ORDER.compare(reservation, from) < 0
+                        : ReservationArchive.HISTORY_ORDER.compare(reservation, from) > 0));
+
+        List<ReservationDTO> merged = Stream.concat(live.stream(), pastPosition)
+                .sorted(ReservationArchive.HISTORY_ORDER)
                 .toList();
+        List<ReservationDTO> page = keyset.scrollsBackward()
+                ? merged.subList(Math.max(0, merged.size() - size), merged.size())
+                : merged.subList(0, Math.min(size, merged.size()));
+
+        // Going backward, hasNext tells whether more rows precede, like the live windows
+        boolean hasMore = live.hasNext() || merged.size() > size;
+        return Window.from(page, index -> historyPosition(page.get(index)), hasMore);
+    }
+
+    private static ScrollPosition historyPosition(ReservationDTO reservation) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("date", reservation.getDate());
+        keys.put("id", reservation.getId());
+        return ScrollPosition.forward(keys);
     }
 
-    @Transactional
     public ReservationDTO create(CreateReservationRequest request) {
+        return create(request, reservation -> {
+        });
+    }
+
+    /**
+     * Books the first candidate table still free for the slot.
+     * The database refuses a second active reservation of a table for a slot, so when a concurrent create claimed
+     * a candidate first the next one is tried, each attempt running in its own transaction.
+     *
+     * @param onCreated Called with the reservation within the transaction creating it, which it fails by throwing
+     */
+    public ReservationDTO create(CreateReservationRequest request, Consumer<ReservationDTO> onCreated) {
         log.info("Attempting to create a reservation for restaurant {} on {} {}", request.getRestaurantId(), request.getDate(), request.getTime());
 
         // Call availability service to check available tables for requested criteria
@@ -103,130 +205,233 @@ public class ReservationService {
 
         // No tables available ?
         if (!availabilityResponse.getAvailable() || availabilityResponse.getAvailableTables().isEmpty()) {
-            throw new NoAvailabilityException(
-                String.format("No tables available for %d people on %s %s",
-                    request.getNumberOfPeople(),
-                    request.getDate(),
-                    request.getTime()
-                )
-            );
+            throw noTablesAvailable(request);
         }
 
         log.info("Retrieved {} available tables", availabilityResponse.getAvailableTables().size());
 
-        // Select the first free table
-        TableDTO selectedTable = availabilityResponse.getAvailableTables().get(0);
-        log.info("Selecting table {} for reservation", selectedTable.getTableNumber());
+        // Candidates come best fit first
+        for (TableDTO table : availabilityResponse.getAvailableTables()) {
+            try {
+                ReservationDTO created = transactionTemplate.execute(status -> {
+                    ReservationDTO reservation = mapper.toDTO(claim(request, table));
+                    onCreated.accept(reservation);
+                    return reservation;
+                });
+
+                log.info("Reservation successfully created on table {}", table.getTableNumber());
+                return created;
+            } catch (DataIntegrityViolationException e) {
+                if (!isSlotAlreadyClaimed(e)) {
+                    throw e;
+                }
+                log.info("Table {} was claimed concurrently, trying the next candidate", table.getTableNumber());
+            }
+        }
+
+        throw noTablesAvailable(request);
+    }
 
+    private Reservation claim(CreateReservationRequest request, TableDTO table) {
         Reservation entity = mapper.toEntity(request);
 
         // Set the tableId & the status to PENDING (awaiting confirmation from restaurant)
-        entity.setTableId(selectedTable.getId());
+        entity.setTableId(table.getId());
         entity.setStatus(ReservationStatus.PENDING);
 
         Reservation saved = repository.save(entity);
+        slotCounter.created(saved);
+        cache.evict(saved.getId(), saved.getCustomerEmail(), saved.getCustomerPhone());
+        eventPublisher.publish(saved, ReservationEventType.CREATED);
+        return saved;
+    }
 
-        log.info("Reservation successfully created");
-        return mapper.toDTO(saved);
+    private static boolean isSlotAlreadyClaimed(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(ACTIVE_SLOT_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static NoAvailabilityException noTablesAvailable(CreateReservationRequest request) {
+        return new NoAvailabilityException(
+            String.format("No tables available for %d people on %s %s",
+                request.getNumberOfPeople(),
+                request.getDate(),
+                request.getTime()
+            )
+        );
     }
 
     @Transactional
     public ReservationDTO confirmReservation(Long id) {
-        Reservation reservation = repository.findById(id)
-                .orElseThrow(ReservationNotFoundException::new);
-
-        // Validate status transition
-        if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new InvalidStatusTransitionException(
-                "Can only confirm PENDING reservations. Current status: " + reservation.getStatus()
-            );
-        }
+        return transition(id, ReservationTransition.CONFIRM);
+    }
 
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        Reservation updated = repository.save(reservation);
+    @Transactional
+    public ReservationDTO rejectReservation(Long id) {
+        return transition(id, ReservationTransition.REJECT);
+    }
 
-        log.info("Reservation {} confirmed", id);
+    @Transactional
+    public ReservationDTO checkInReservation(Long id) {
+        return transition(id, ReservationTransition.CHECK_IN);
+    }
 
-        return mapper.toDTO(updated);
+    @Transactional
+    public ReservationDTO completeReservation(Long id) {
+        return transition(id, ReservationTransition.COMPLETE);
     }
 
     @Transactional
-    public ReservationDTO rejectReservation(Long id) {
+    public ReservationDTO cancelReservation(Long id) {
+        return transition(id, ReservationTransition.CANCEL);
+    }
+
+    /**
+     * Moves the reservation with one guarded update, so that concurrent transitions cannot both succeed.
+     * The reservation is only read first when the update moved nothing, to tell a missing reservation from a refused transition.
+     */
+    private ReservationDTO transition(Long id, ReservationTransition transition) {
+        ReservationStatus from = repository.transition(id, transition, LocalDateTime.now())
+                .orElseThrow(() -> refused(id, transition));
+
         Reservation reservation = repository.findById(id)
                 .orElseThrow(ReservationNotFoundException::new);
 
-        if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new InvalidStatusTransitionException(
-                "Can only reject PENDING reservations. Current status: " + reservation.getStatus()
-            );
-        }
+        slotCounter.moved(reservation, from);
+        cache.evict(id, reservation.getCustomerEmail(), reservation.getCustomerPhone());
+        eventPublisher.publish(reservation, transition.getEventType());
 
-        reservation.setStatus(ReservationStatus.CANCELED);
-        reservation.setCanceledAt(LocalDateTime.now());
-        Reservation updated = repository.save(reservation);
+        log.info("Reservation {} moved to {}", id, transition.getTo());
 
-        log.info("Reservation {} rejected by restaurant", id);
+        return mapper.toDTO(reservation);
+    }
 
-        return mapper.toDTO(updated);
+    private RuntimeException refused(Long id, ReservationTransition transition) {
+        return repository.findById(id)
+                .<RuntimeException>map(reservation -> new InvalidStatusTransitionException(
+                        transition.invalidTransitionMessage(reservation.getStatus())))
+                .orElseGet(ReservationNotFoundException::new);
     }
 
+    /**
+     * Applies a transition to many reservations with one read and one set-based update.
+     * A reservation is only moved if it is still in the status the transition starts from, the others are reported back.
+     *
+     * @return One result per distinct id, in the given order
+     */
     @Transactional
-    public ReservationDTO checkInReservation(Long id) {
-        Reservation reservation = repository.findById(id)
-                .orElseThrow(ReservationNotFoundException::new);
+    public List<TransitionResultDTO> transitionAll(Collection<Long> ids, ReservationTransition transition) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
 
-        if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
-            throw new InvalidStatusTransitionException(
-                "Can only checkIn CONFIRMED reservations. Current status: " + reservation.getStatus()
-            );
-        }
+        Map<Long, ReservationState> states = repository.findStatesByIdIn(distinctIds)
+                .stream()
+                .collect(Collectors.toMap(ReservationState::id, Function.identity()));
 
-        reservation.setStatus(ReservationStatus.CHECKED_IN);
-        Reservation updated = repository.save(reservation);
+        List<ReservationState> eligible = states.values()
+                .stream()
+                .filter(state -> transition.isAllowedFrom(state.status()))
+                .toList();
+
+        Set<Long> applied = eligible.isEmpty() ? Set.of() : transitionEligible(eligible, transition);
+
+        List<ReservationState> moved = eligible.stream().filter(state -> applied.contains(state.id())).toList();
+        slotCounter.moved(moved, transition.getTo());
+        moved.forEach(state -> cache.evict(state.id(), state.customerEmail(), state.customerPhone()));
+
+        eventPublisher.publishAll(moved.stream()
+                .map(state -> mapper.toOutboxEvent(state, transition))
+                .toList());
 
-        log.info("Reservation {} marked as checked in", id);
+        log.info("Bulk {} applied to {} of {} reservations", transition, applied.size(), distinctIds.size());
 
-        return mapper.toDTO(updated);
+        return distinctIds.stream()
+                .map(id -> toTransitionResult(id, states.get(id), applied.contains(id), transition))
+                .toList();
     }
 
-    @Transactional
-    public ReservationDTO completeReservation(Long id) {
-        Reservation reservation = repository.findById(id)
-                .orElseThrow(ReservationNotFoundException::new);
+    private Set<Long> transitionEligible(List<ReservationState> eligible, ReservationTransition transition) {
+        List<Long> eligibleIds = eligible.stream().map(ReservationState::id).toList();
+        LocalDateTime now = LocalDateTime.now();
 
-        if (reservation.getStatus() != ReservationStatus.CHECKED_IN) {
-            throw new InvalidStatusTransitionException(
-                "Can only complete CHECKED_IN reservations. Current status: " + reservation.getStatus()
-            );
+        int moved = repository.transitionAll(eligibleIds, transition, now);
+
+        if (moved == eligibleIds.size()) {
+            return new HashSet<>(eligibleIds);
         }
 
-        reservation.setStatus(ReservationStatus.COMPLETED);
-        Reservation updated = repository.save(reservation);
+        // Some reservations changed concurrently between the read and the update, keep the ones this update moved
+        Map<Long, ReservationState> after = repository.findStatesByIdIn(eligibleIds)
+                .stream()
+                .collect(Collectors.toMap(ReservationState::id, Function.identity()));
+
+        return eligible.stream()
+                .filter(before -> {
+                    ReservationState current = after.get(before.id());
+                    return current != null
+                            && current.status() == transition.getTo()
+                            && current.version() == before.version() + 1;
+                })
+                .map(ReservationState::id)
+                .collect(Collectors.toSet());
+    }
 
-        log.info("Reservation {} marked as completed", id);
+    private static TransitionResultDTO toTransitionResult(Long id,
+                                                          ReservationState state,
+                                                          boolean applied,
+                                                          ReservationTransition transition) {
+        if (state == null) {
+            return TransitionResultDTO.builder().id(id).outcome(TransitionOutcome.NOT_FOUND).build();
+        }
 
-        return mapper.toDTO(updated);
+        return TransitionResultDTO.builder()
+                .id(id)
+                .outcome(applied ? TransitionOutcome.APPLIED : TransitionOutcome.INVALID_STATUS)
+                .status(applied ? transition.getTo().toString() : state.status().toString())
+                .build();
     }
 
     @Transactional
-    public ReservationDTO cancelReservation(Long id) {
+    public void delete(Long id) {
         Reservation reservation = repository.findById(id)
                 .orElseThrow(ReservationNotFoundException::new);
 
-        reservation.setStatus(ReservationStatus.CANCELED);
-        reservation.setCanceledAt(LocalDateTime.now());
-        Reservation updated = repository.save(reservation);
-
-        log.info("Reservation {} canceled", id);
+        repository.delete(reservation);
+        slotCounter.deleted(reservation);
+        cache.evict(id, reservation.getCustomerEmail(), reservation.getCustomerPhone());
+        eventPublisher.publish(reservation, ReservationEventType.DELETED);
+    }
 
-        return mapper.toDTO(updated);
+    /**
+     * Keyset page of the reservations still holding their table from a date on, ordered by id
+     *
+     * @param afterId Id of the last reservation of the previous page, 0 for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationEventDTO> getActiveReservationSnapshots(LocalDate from, Long afterId, Integer size) {
+        return repository.findByStatusInAndDateGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                        ACTIVE_STATUSES,
+                        from,
+                        afterId,
+                        Limit.of(size)
+                ).stream()
+                .map(reservation -> mapper.toEvent(reservation, ReservationEventType.SNAPSHOT))
+                .toList();
     }
 
-    @Transactional
-    public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ReservationNotFoundException();
-        }
-        repository.deleteById(id);
+    /**
+     * The reservations of a restaurant still holding their table on a day, ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationEventDTO> getActiveReservationSnapshots(Long restaurantId, LocalDate date) {
+        return repository.findByRestaurantIdAndDateAndStatusInOrderByIdAsc(restaurantId, date, ACTIVE_STATUSES)
+                .stream()
+                .map(reservation -> mapper.toEvent(reservation, ReservationEventType.SNAPSHOT))
+                .toList();
     }
 }
@@ -0,0 +1,151 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationCountsDTO;
+import com.project.reservation_service.api.dto.SlotCountsDTO;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Counts of reservations per restaurant, slot and status, changed in the transaction changing the reservations
+ * so that they never drift from them. Reading the counts of a day costs one primary key range scan,
+ * whatever the number of reservations.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationSlotCounter {
+
+    /**
+     * Postgres increments a count in one statement, creating it when missing, even under concurrent first increments
+     */
+    private static final String POSTGRES_INCREMENT = "insert into reservation_slot_count "
+            + "(restaurant_id, reservation_date, reservation_time, status, reservation_count) values (?, ?, ?, ?, ?) "
+            + "on conflict (restaurant_id, reservation_date, reservation_time, status) "
+            + "do update set reservation_count = reservation_slot_count.reservation_count + excluded.reservation_count";
+
+    private static final String MERGE_INCREMENT = "merge into reservation_slot_count c using (values ("
+            + "cast(? as bigint), cast(? as date), cast(? as time), cast(? as varchar(20)), cast(? as bigint))) "
+            + "d (restaurant_id, reservation_date, reservation_time, status, delta) "
+            + "on c.restaurant_id = d.restaurant_id and c.reservation_date = d.reservation_date "
+            + "and c.reservation_time = d.reservation_time and c.status = d.status "
+            + "when matched then update set reservation_count = c.reservation_count + d.delta "
+            + "when not matched then insert (restaurant_id, reservation_date, reservation_time, status, reservation_count) "
+            + "values (d.restaurant_id, d.reservation_date, d.reservation_time, d.status, d.delta)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private String increment;
+
+    @PostConstruct
+    void start() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        increment = "PostgreSQL".equalsIgnoreCase(database) ? POSTGRES_INCREMENT : MERGE_INCREMENT;
+    }
+
+    record Slot(Long restaurantId, LocalDate date, LocalTime time, ReservationStatus status) implements Comparable<Slot> {
+
+        private static final Comparator<Slot> ORDER = Comparator.comparing(Slot::restaurantId)
+                .thenComparing(Slot::date)
+                .thenComparing(Slot::time)
+                .thenComparing(Slot::status);
+
+        @Override
+        public int compareTo(Slot other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Reservation reservation) {
+        apply(Map.of(slot(reservation, reservation.getStatus()), 1L));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Reservation reservation) {
+        apply(Map.of(slot(reservation, reservation.getStatus()), -1L));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moved(Reservation reservation, ReservationStatus from) {
+        moved(List.of(new ReservationState(reservation.getId(), reservation.getRestaurantId(), reservation.getTableId(),
+                reservation.getDate(), reservation.getTime(), from, reservation.getVersion(),
+                reservation.getCustomerEmail(), reservation.getCustomerPhone())), reservation.getStatus());
+    }
+
+    /**
+     * @param states The reservations before moving, holding the status they moved from
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moved(Collection<ReservationState> states, ReservationStatus to) {
+        Map<Slot, Long> deltas = new HashMap<>();
+        for (ReservationState state : states) {
+            deltas.merge(new Slot(state.restaurantId(), state.date(), state.time(), state.status()), -1L, Long::sum);
+            deltas.merge(new Slot(state.restaurantId(), state.date(), state.time(), to), 1L, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    public ReservationCountsDTO countDay(Long restaurantId, LocalDate date) {
+        Map<String, Long> totals = new TreeMap<>();
+        Map<LocalTime, SlotCountsDTO> slots = new TreeMap<>();
+
+        jdbcTemplate.query("select reservation_time, status, reservation_count from reservation_slot_count "
+                        + "where restaurant_id = ? and reservation_date = ? and reservation_count > 0",
+                row -> {
+                    LocalTime time = row.getTime(1).toLocalTime();
+                    ReservationStatus status = ReservationStatus.valueOf(row.getString(2));
+                    long count = row.getLong(3);
+
+                    SlotCountsDTO slot = slots.computeIfAbsent(time,
+                            key -> SlotCountsDTO.builder().time(key).counts(new TreeMap<>()).active(0L).build());
+                    slot.getCounts().put(status.name(), count);
+                    if (status.holdsTable()) {
+                        slot.setActive(slot.getActive() + count);
+                    }
+                    totals.merge(status.name(), count, Long::sum);
+                },
+                restaurantId, Date.valueOf(date));
+
+        return ReservationCountsDTO.builder()
+                .restaurantId(restaurantId)
+                .date(date)
+                .totals(totals)
+                .slots(new ArrayList<>(slots.values()))
+                .build();
+    }
+
+    private static Slot slot(Reservation reservation, ReservationStatus status) {
+        return new Slot(reservation.getRestaurantId(), reservation.getDate(), reservation.getTime(), status);
+    }
+
+    /**
+     * Counts are incremented in slot order, so that transactions changing several counts cannot deadlock
+     */
+    private void apply(Map<Slot, Long> deltas) {
+        List<Object[]> increments = new TreeMap<>(deltas).entrySet()
+                .stream()
+                .filter(delta -> delta.getValue() != 0)
+                .map(delta -> new Object[]{
+                        delta.getKey().restaurantId(),
+                        Date.valueOf(delta.getKey().date()),
+                        Time.valueOf(delta.getKey().time()),
+                        delta.getKey().status().name(),
+                        delta.getValue()})
+                .toList();
+
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate(increment, increments);
+        }
+    }
+}
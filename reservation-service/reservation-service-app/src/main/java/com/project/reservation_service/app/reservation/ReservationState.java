@@ -0,0 +1,20 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * What a bulk transition reads of a reservation, without loading the entity
+ */
+public record ReservationState(Long id,
+                               Long restaurantId,
+                               Long tableId,
+                               LocalDate date,
+                               LocalTime time,
+                               ReservationStatus status,
+                               Long version,
+                               String customerEmail,
+                               String customerPhone) {
+}
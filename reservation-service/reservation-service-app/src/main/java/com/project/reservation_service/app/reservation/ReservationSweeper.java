@@ -0,0 +1,94 @@
+package com.project.reservation_service.app.reservation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Releases the tables of reservations nobody will move anymore: pending ones the restaurant never confirmed
+ * are canceled, checked in ones whose slot is long over are completed.
+ * Each batch claims its rows with SKIP LOCKED and moves them in one update, in its own transaction,
+ * so instances sweeping at the same time take different rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSweeper {
+
+    static final String RECLAIMED_METRIC = "reservation.sweeper.reclaimed";
+
+    private final ReservationRepository repository;
+    private final ReservationMapper mapper;
+    private final ReservationEventPublisher eventPublisher;
+    private final ReservationSlotCounter slotCounter;
+    private final ReservationCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reservation.sweeper.pending-ttl:24h}")
+    private Duration pendingTtl;
+
+    @Value("${reservation.sweeper.checked-in-grace:4h}")
+    private Duration checkedInGrace;
+
+    @Value("${reservation.sweeper.batch-size:500}")
+    private Integer batchSize;
+
+    @Scheduled(fixedDelayString = "${reservation.sweeper.interval:5m}", initialDelayString = "${reservation.sweeper.interval:5m}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime slotsBefore = now.minus(checkedInGrace);
+
+        int expired = sweep(ReservationTransition.CANCEL, "expired", now,
+                limit -> repository.claimStalePending(now.minus(pendingTtl), now.toLocalDate(), now.toLocalTime(), limit));
+        int completed = sweep(ReservationTransition.COMPLETE, "completed", now,
+                limit -> repository.claimCheckedInBefore(slotsBefore.toLocalDate(), slotsBefore.toLocalTime(), limit));
+
+        if (expired > 0 || completed > 0) {
+            log.info("Swept {} stale pending and {} unfinished checked in reservations", expired, completed);
+        }
+    }
+
+    /**
+     * @param outcome Tag of the reclaimed reservations in the metrics
+     * @param claim   Claims a batch of reservations to move, up to the limit
+     * @return The number of reservations moved
+     */
+    private int sweep(ReservationTransition transition,
+                      String outcome,
+                      LocalDateTime now,
+                      Function<Limit, List<ReservationState>> claim) {
+        int swept = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<ReservationState> claimed = claim.apply(Limit.of(batchSize));
+                if (claimed.isEmpty()) {
+                    return 0;
+                }
+
+                // The claimed rows are locked, the guarded update moves every one of them
+                repository.transitionAll(claimed.stream().map(ReservationState::id).toList(), transition, now);
+                slotCounter.moved(claimed, transition.getTo());
+                claimed.forEach(state -> cache.evict(state.id(), state.customerEmail(), state.customerPhone()));
+                eventPublisher.publishAll(claimed.stream().map(state -> mapper.toOutboxEvent(state, transition)).toList());
+                return claimed.size();
+            });
+
+            meterRegistry.counter(RECLAIMED_METRIC, "outcome", outcome).increment(moved);
+            swept += moved;
+        } while (moved == batchSize);
+
+        return swept;
+    }
+}
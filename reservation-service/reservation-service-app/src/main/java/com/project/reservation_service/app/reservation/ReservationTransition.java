@@ -0,0 +1,65 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Transitions of the reservation state machine.
+ * This table is the single definition of which status a transition starts from, the service guards its updates
+ * with it and the controller only links the transitions it allows.
+ */
+@Getter
+public enum ReservationTransition {
+    CONFIRM("confirm", EnumSet.of(ReservationStatus.PENDING), ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED),
+    REJECT("reject", EnumSet.of(ReservationStatus.PENDING), ReservationStatus.CANCELED, ReservationEventType.REJECTED),
+    CHECK_IN("check-in", EnumSet.of(ReservationStatus.CONFIRMED), ReservationStatus.CHECKED_IN, ReservationEventType.CHECKED_IN),
+    COMPLETE("complete", EnumSet.of(ReservationStatus.CHECKED_IN), ReservationStatus.COMPLETED, ReservationEventType.COMPLETED),
+    CANCEL("cancel", EnumSet.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED), ReservationStatus.CANCELED, ReservationEventType.CANCELED);
+
+    /**
+     * Relation name of the link offering the transition
+     */
+    private final String rel;
+    private final Set<ReservationStatus> from;
+    private final ReservationStatus to;
+    private final ReservationEventType eventType;
+
+    ReservationTransition(String rel, Set<ReservationStatus> from, ReservationStatus to, ReservationEventType eventType) {
+        this.rel = rel;
+        this.from = from;
+        this.to = to;
+        this.eventType = eventType;
+    }
+
+    public boolean isAllowedFrom(ReservationStatus status) {
+        return from.contains(status);
+    }
+
+    /**
+     * Whether the reservation gets its cancellation time set
+     */
+    public boolean cancels() {
+        return to == ReservationStatus.CANCELED;
+    }
+
+    /**
+     * @return The transitions allowed from a status, in declaration order
+     */
+    public static List<ReservationTransition> allowedFrom(ReservationStatus status) {
+        return Arrays.stream(values())
+                .filter(transition -> transition.isAllowedFrom(status))
+                .toList();
+    }
+
+    public String invalidTransitionMessage(ReservationStatus current) {
+        String allowed = from.stream().map(Enum::name).collect(Collectors.joining(" or "));
+        return String.format("Can only %s %s reservations. Current status: %s", rel, allowed, current);
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Single reservation transitions, written outside of the derived queries because they return the status left
+ */
+public interface ReservationTransitionRepository {
+
+    /**
+     * Moves the reservation if it is still in a status the transition starts from, in one guarded statement
+     * bumping its version
+     *
+     * @return The status the reservation left, empty if it is missing or in another status
+     */
+    Optional<ReservationStatus> transition(Long id, ReservationTransition transition, LocalDateTime now);
+}
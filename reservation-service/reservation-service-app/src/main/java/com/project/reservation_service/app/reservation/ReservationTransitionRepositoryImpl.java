@@ -0,0 +1,76 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A JPQL update only returns a row count, which tells neither the status left when a transition starts from several
+ * nor a missing reservation from a refused transition, so the guarded update is native and returns the row it changed
+ */
+@RequiredArgsConstructor
+class ReservationTransitionRepositoryImpl implements ReservationTransitionRepository {
+
+    /**
+     * Postgres only returns the new row of an update, the previous one is joined from a select locking it,
+     * which is evaluated again on the latest version of the row when it waited for a concurrent transition.
+     * The updated row is also looked up by id, or the join would read every partition.
+     */
+    private static final String POSTGRES_TRANSITION = "update reservation r set status = ?, version = r.version + 1, "
+            + "updated_at = ?%s "
+            + "from (select id, reservation_date, status from reservation where id = ? and status in (%s) for update) old "
+            + "where r.id = ? and r.id = old.id and r.reservation_date = old.reservation_date "
+            + "returning old.status";
+
+    private static final String OLD_TABLE_TRANSITION = "select status from old table (update reservation "
+            + "set status = ?, version = version + 1, updated_at = ?%s "
+            + "where id = ? and status in (%s))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void start() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(database);
+    }
+
+    @Override
+    public Optional<ReservationStatus> transition(Long id, ReservationTransition transition, LocalDateTime now) {
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(transition.getTo().name());
+        arguments.add(Timestamp.valueOf(now));
+        if (transition.cancels()) {
+            arguments.add(Timestamp.valueOf(now));
+        }
+        arguments.add(id);
+        transition.getFrom().forEach(status -> arguments.add(status.name()));
+        if (postgres) {
+            arguments.add(id);
+        }
+
+        String sql = String.format(postgres ? POSTGRES_TRANSITION : OLD_TABLE_TRANSITION,
+                transition.cancels() ? ", canceled_at = ?" : "",
+                String.join(", ", Collections.nCopies(transition.getFrom().size(), "?")));
+
+        // Like a modifying query, pending changes are written first and the entities read before are dropped after
+        entityManager.flush();
+        List<ReservationStatus> moved = jdbcTemplate.query(sql,
+                (row, index) -> ReservationStatus.valueOf(row.getString(1)), arguments.toArray());
+        entityManager.clear();
+
+        return moved.stream().findFirst();
+    }
+}
@@ -0,0 +1,15 @@
+-- Number of reservations per restaurant, slot and status, kept up to date with every change of a reservation.
+-- Archiving reservations does not change it, the counts of past days outlive their rows.
+CREATE TABLE IF NOT EXISTS reservation_slot_count (
+    restaurant_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    reservation_time TIME NOT NULL,
+    status CHARACTER VARYING(20) NOT NULL,
+    reservation_count BIGINT NOT NULL,
+    PRIMARY KEY(restaurant_id, reservation_date, reservation_time, status)
+);
+
+INSERT INTO reservation_slot_count (restaurant_id, reservation_date, reservation_time, status, reservation_count)
+SELECT restaurant_id, reservation_date, reservation_time, status, COUNT(*)
+FROM reservation
+GROUP BY restaurant_id, reservation_date, reservation_time, status;
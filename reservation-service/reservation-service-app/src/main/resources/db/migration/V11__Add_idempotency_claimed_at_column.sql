@@ -0,0 +1,5 @@
+ALTER TABLE idempotency_key ADD COLUMN claimed_at TIMESTAMP(6);
+
+UPDATE idempotency_key SET claimed_at = created_at;
+
+ALTER TABLE idempotency_key ALTER COLUMN claimed_at SET NOT NULL;
@@ -0,0 +1 @@
+ALTER TABLE reservation ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS reservation_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1) NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    restaurant_id BIGINT NOT NULL,
+    table_id BIGINT NOT NULL,
+    reservation_date DATE NOT NULL,
+    reservation_time TIME NOT NULL,
+    status CHARACTER VARYING(20) NOT NULL,
+    event_type CHARACTER VARYING(20) NOT NULL,
+    version BIGINT NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6),
+    PRIMARY KEY(id)
+);
+
+CREATE INDEX idx_reservation_outbox_published_at ON reservation_outbox (published_at, id);
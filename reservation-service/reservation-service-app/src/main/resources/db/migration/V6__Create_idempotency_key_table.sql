@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key CHARACTER VARYING(255) NOT NULL,
+    request_hash CHARACTER VARYING(64) NOT NULL,
+    response_body CHARACTER VARYING,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY(idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
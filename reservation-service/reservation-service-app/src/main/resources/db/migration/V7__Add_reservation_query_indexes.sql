@@ -0,0 +1,9 @@
+-- Availability checks and day searches, one restaurant or several, with or without a time
+CREATE INDEX idx_reservation_restaurant_date_time ON reservation (restaurant_id, reservation_date, reservation_time);
+
+-- Customer lookups, newest first and paged on (date, id)
+CREATE INDEX idx_reservation_customer_email_date ON reservation (customer_email, reservation_date DESC, id DESC);
+CREATE INDEX idx_reservation_customer_phone_date ON reservation (customer_phone, reservation_date DESC, id DESC);
+
+-- Reservations of a restaurant in a status, paged on id
+CREATE INDEX idx_reservation_restaurant_status ON reservation (restaurant_id, status, id);
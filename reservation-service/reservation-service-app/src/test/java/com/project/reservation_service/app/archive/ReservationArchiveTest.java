@@ -0,0 +1,104 @@
+package com.project.reservation_service.app.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.reservation_service.api.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationArchiveTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    private Path directory;
+
+    private ReservationArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        archive = newArchive();
+    }
+
+    @Test
+    void shouldFindCustomerHistoryAcrossSegments() {
+        archive.append(List.of(
+                reservation(1L, "john@example.com", "0612345678", LocalDate.of(2023, 3, 1)),
+                reservation(2L, "jane@example.com", "0698765432", LocalDate.of(2023, 3, 2))));
+        archive.append(List.of(
+                reservation(5L, "john@example.com", "0612345678", LocalDate.of(2024, 1, 10))));
+
+        assertEquals(List.of(5L, 1L), ids(archive.findByCustomerEmail("john@example.com")));
+        assertEquals(List.of(2L), ids(archive.findByCustomerPhone("0698765432")));
+        assertTrue(archive.findByCustomerEmail("nobody@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldReadSegmentsWrittenByAnotherInstance() throws Exception {
+        archive.append(List.of(reservation(1L, "john@example.com", "0612345678", LocalDate.of(2023, 3, 1))));
+
+        ReservationDTO found = newArchive().findByCustomerEmail("john@example.com").get(0);
+
+        assertEquals(1L, found.getId());
+        assertEquals(LocalTime.of(19, 0), found.getTime());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void shouldIgnoreReservationsArchivedTwice() {
+        ReservationDTO reservation = reservation(1L, "john@example.com", "0612345678", LocalDate.of(2023, 3, 1));
+        archive.append(List.of(reservation));
+        archive.append(List.of(reservation));
+
+        assertEquals(List.of(1L), ids(archive.findByCustomerPhone("0612345678")));
+    }
+
+    @Test
+    void shouldFindNothingBeforeTheFirstSegment() {
+        ReflectionTestUtils.setField(archive, "directory", directory.resolve("missing"));
+
+        assertTrue(archive.findByCustomerEmail("john@example.com").isEmpty());
+    }
+
+    private ReservationArchive newArchive() {
+        ReservationArchive newArchive = new ReservationArchive(objectMapper);
+        ReflectionTestUtils.setField(newArchive, "directory", directory);
+        return newArchive;
+    }
+
+    private ReservationDTO reservation(Long id, String email, String phone, LocalDate date) {
+        return ReservationDTO.builder()
+                .id(id)
+                .restaurantId(1L)
+                .tableId(2L)
+                .customerName("Customer " + id)
+                .customerEmail(email)
+                .customerPhone(phone)
+                .date(date)
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(2)
+                .status("COMPLETED")
+                .build();
+    }
+
+    private List<Long> ids(List<ReservationDTO> reservations) {
+        return reservations.stream().map(ReservationDTO::getId).toList();
+    }
+}
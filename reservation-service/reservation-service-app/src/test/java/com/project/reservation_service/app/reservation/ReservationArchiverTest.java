@@ -0,0 +1,78 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.app.archive.ReservationArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationArchiverTest {
+
+    @Mock
+    private ReservationRepository repository;
+
+    @Mock
+    private ReservationArchive archive;
+
+    @Mock
+    private ReservationCache cache;
+
+    private ReservationArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new ReservationArchiver(repository, archive, cache);
+        ReflectionTestUtils.setField(archiver, "retention", Duration.ofDays(365));
+        ReflectionTestUtils.setField(archiver, "batchSize", 2);
+    }
+
+    @Test
+    void shouldDeleteEachBatchOnceArchived() {
+        List<ReservationDTO> first = List.of(dto(1L), dto(2L));
+        List<ReservationDTO> second = List.of(dto(5L));
+        LocalDate before = LocalDate.now().minusDays(365);
+        when(repository.findDTOsToArchive(ReservationArchiver.FINISHED_STATUSES, before, 0L, Limit.of(2))).thenReturn(first);
+        when(repository.findDTOsToArchive(ReservationArchiver.FINISHED_STATUSES, before, 2L, Limit.of(2))).thenReturn(second);
+        when(repository.deleteArchived(anyCollection(), eq(ReservationArchiver.FINISHED_STATUSES))).thenReturn(2, 1);
+
+        assertEquals(3, archiver.archiveFinished());
+
+        InOrder inOrder = inOrder(archive, repository, cache);
+        inOrder.verify(archive).append(first);
+        inOrder.verify(repository).deleteArchived(List.of(1L, 2L), ReservationArchiver.FINISHED_STATUSES);
+        inOrder.verify(cache).evict(1L, null, null);
+        inOrder.verify(archive).append(second);
+        inOrder.verify(repository).deleteArchived(List.of(5L), ReservationArchiver.FINISHED_STATUSES);
+    }
+
+    @Test
+    void shouldKeepReservationsTheArchiveCouldNotWrite() {
+        when(repository.findDTOsToArchive(any(), any(), eq(0L), any())).thenReturn(List.of(dto(1L)));
+        doThrow(new UncheckedIOException(new IOException("No space left on device"))).when(archive).append(anyList());
+
+        assertThrows(UncheckedIOException.class, archiver::archiveFinished);
+
+        verify(repository, never()).deleteArchived(anyCollection(), any());
+    }
+
+    private ReservationDTO dto(Long id) {
+        return ReservationDTO.builder().id(id).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.exception.ReservationNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private ReservationCache cache;
+    private AtomicInteger loads;
+
+    static ReservationCache newCache(MeterRegistry meterRegistry) {
+        ReservationCache cache = new ReservationCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxReservations", 1000L);
+        ReflectionTestUtils.setField(cache, "maxCustomerReservations", 1000L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        cache.start();
+        return cache;
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = newCache(meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReadReservationOnceUntilEvicted() {
+        assertEquals(1L, cache.getById(1L, this::load).getId());
+        assertEquals(1L, cache.getById(1L, this::load).getId());
+        assertEquals(1, loads.get());
+
+        cache.evict(1L, "john@example.com", "0612345678");
+        cache.getById(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "reservation.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldNotCacheMissingReservations() {
+        assertThrows(ReservationNotFoundException.class, () -> cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            throw new ReservationNotFoundException();
+        }));
+
+        cache.getById(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldEvictEveryPageOfTheCustomerOnly() {
+        ReservationCache.Customer john = ReservationCache.Customer.email("john@example.com");
+        ReservationCache.Customer jane = ReservationCache.Customer.email("jane@example.com");
+        cache.getCustomerPage(john, ScrollPosition.keyset(), 10, this::page);
+        cache.getCustomerPage(john, ScrollPosition.keyset(), 20, this::page);
+        cache.getCustomerPage(jane, ScrollPosition.keyset(), 10, this::page);
+
+        cache.evict(7L, "john@example.com", null);
+        cache.getCustomerPage(john, ScrollPosition.keyset(), 10, this::page);
+        cache.getCustomerPage(john, ScrollPosition.keyset(), 20, this::page);
+        cache.getCustomerPage(jane, ScrollPosition.keyset(), 10, this::page);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void shouldEvictAgainOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(1L, null, null);
+
+        // A read in between the change and its commit caches the former state
+        cache.getById(1L, this::load);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.getById(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private ReservationDTO load(Long id) {
+        loads.incrementAndGet();
+        return ReservationDTO.builder().id(id).build();
+    }
+
+    private Window<ReservationDTO> page() {
+        loads.incrementAndGet();
+        return Window.from(List.of(ReservationDTO.builder().id(1L).build()), ScrollPosition::offset);
+    }
+}
@@ -1,21 +1,33 @@
 package com.project.reservation_service.app.reservation;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.reservation_service.api.dto.requests.BulkTransitionRequest;
 import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.reservation_service.api.enums.ReservationEventType;
 import com.project.reservation_service.api.enums.ReservationStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,11 +45,22 @@ class ReservationControllerIntegrationTest {
     @Autowired
     private ReservationRepository repository;
 
+    @Autowired
+    private ReservationOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReservationSlotCounter slotCounter;
+
+    @Autowired
+    private ReservationCache cache;
+
     private Reservation testReservation;
 
     @BeforeEach
     void setUp() {
         repository.deleteAll();
+        // Rows are saved straight through the repository, which the cache does not see
+        cache.clear();
 
         testReservation = Reservation.builder()
                 .restaurantId(1L)
@@ -99,6 +122,111 @@ class ReservationControllerIntegrationTest {
                 .andExpect(jsonPath("$._links['all-reservations'].href").exists());
     }
 
+    @Test
+    void shouldPageThroughCustomerReservationsWithCursors() throws Exception {
+        for (int day = 16; day <= 17; day++) {
+            repository.save(Reservation.builder()
+                    .restaurantId(1L)
+                    .tableId(2L)
+                    .customerName("John Doe")
+                    .customerEmail("john@example.com")
+                    .customerPhone("0612345678")
+                    .date(LocalDate.of(2026, 1, day))
+                    .time(LocalTime.of(19, 0))
+                    .numberOfPeople(4)
+                    .status(ReservationStatus.PENDING)
+                    .build());
+        }
+
+        String first = mockMvc.perform(get("/api/reservation/customer/email/{email}", "john@example.com")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.reservations", hasSize(2)))
+                .andExpect(jsonPath("$._embedded.reservations[0].date").value("2026-01-17"))
+                .andExpect(jsonPath("$._embedded.reservations[1].date").value("2026-01-16"))
+                .andExpect(jsonPath("$._links.prev").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String next = objectMapper.readTree(first).at("/_links/next/href").asText();
+        String second = mockMvc.perform(get(URI.create(next)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.reservations", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.reservations[0].date").value("2026-01-15"))
+                .andExpect(jsonPath("$._links.next").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String prev = objectMapper.readTree(second).at("/_links/prev/href").asText();
+        mockMvc.perform(get(URI.create(prev)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.reservations", hasSize(2)))
+                .andExpect(jsonPath("$._embedded.reservations[0].date").value("2026-01-17"))
+                .andExpect(jsonPath("$._links.next.href").exists())
+                .andExpect(jsonPath("$._links.prev").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/reservation").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Cursor"));
+    }
+
+    @Test
+    void shouldRejectCursorOfAnotherListing() throws Exception {
+        // A cursor of the id ordered listing, the history is ordered by date then id
+        String byId = Base64.getUrlEncoder().withoutPadding().encodeToString("id=5".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/reservation/customer/email/{email}", "john@example.com").param("after", byId))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Cursor"));
+
+        String byDate = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("date=2026-01-15&id=5".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/reservation").param("before", byDate))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportReservationsAsNdjson() throws Exception {
+        repository.save(Reservation.builder()
+                .restaurantId(2L)
+                .tableId(7L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(20, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        String body = mockMvc.perform(get("/api/reservation/export")
+                        .param("restaurantId", "1")
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(1, lines.size());
+        assertEquals(testReservation.getId(), objectMapper.readTree(lines.get(0)).get("id").asLong());
+    }
+
+    @Test
+    void shouldGzipExportWhenAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/reservation/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            List<String> lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+            assertEquals(1, lines.size());
+            assertEquals("John Doe", objectMapper.readTree(lines.get(0)).get("customerName").asText());
+        }
+    }
+
     @Test
     void shouldSearchReservationsByRestaurantAndDateAndTime() throws Exception {
         mockMvc.perform(post("/api/reservation/search")
@@ -134,6 +262,156 @@ class ReservationControllerIntegrationTest {
                 .andExpect(jsonPath("$._links.self.href").exists());
     }
 
+    @Test
+    void shouldSearchWholeDayWhenTimeIsOmitted() throws Exception {
+        repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(3L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(21, 30))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        mockMvc.perform(post("/api/reservation/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "restaurantId": 1,
+                                "date": "2026-01-15"
+                            }
+                            """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.reservations", hasSize(2)));
+    }
+
+    @Test
+    void shouldSearchSeveralRestaurantsInOneCall() throws Exception {
+        repository.save(Reservation.builder()
+                .restaurantId(2L)
+                .tableId(5L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        mockMvc.perform(post("/api/reservation/search/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "restaurantIds": [1, 2, 3],
+                                "date": "2026-01-15",
+                                "time": "19:00"
+                            }
+                            """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.reservations", hasSize(2)))
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    void shouldPageThroughActiveReservations() throws Exception {
+        repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(3L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CANCELED)
+                .build());
+        Reservation second = repository.save(Reservation.builder()
+                .restaurantId(2L)
+                .tableId(5L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 16))
+                .time(LocalTime.of(20, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        mockMvc.perform(get("/api/reservation/events/active")
+                        .param("from", "2026-01-15")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.events", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.events[0].reservationId").value(testReservation.getId()))
+                .andExpect(jsonPath("$._embedded.events[0].type").value("SNAPSHOT"))
+                .andExpect(jsonPath("$._embedded.events[0].version").value(0))
+                .andExpect(jsonPath("$._links.next.href").exists());
+
+        mockMvc.perform(get("/api/reservation/events/active")
+                        .param("from", "2026-01-15")
+                        .param("after", testReservation.getId().toString())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.events", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.events[0].reservationId").value(second.getId()));
+
+        mockMvc.perform(get("/api/reservation/events/active")
+                        .param("from", "2026-01-16")
+                        .param("after", second.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded").doesNotExist())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    void shouldGetActiveReservationsOfOneRestaurantAndDay() throws Exception {
+        repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(3L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(20, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CANCELED)
+                .build());
+        repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(3L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 16))
+                .time(LocalTime.of(20, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+        repository.save(Reservation.builder()
+                .restaurantId(2L)
+                .tableId(5L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(20, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        mockMvc.perform(get("/api/reservation/events/active/restaurant/{restaurantId}", 1L)
+                        .param("date", "2026-01-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.events", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.events[0].reservationId").value(testReservation.getId()))
+                .andExpect(jsonPath("$._embedded.events[0].type").value("SNAPSHOT"))
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
     @Test
     void shouldGetReservationsByRestaurantAndStatus() throws Exception {
         mockMvc.perform(get("/api/reservation/restaurant/{restaurantId}/status/{status}",
@@ -152,6 +430,117 @@ class ReservationControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("CONFIRMED"));
     }
 
+    @Test
+    void shouldCountReservationsPerSlotAndStatus() throws Exception {
+        slotCounter.created(testReservation);
+
+        mockMvc.perform(patch("/api/reservation/{id}/confirm", testReservation.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/reservation/restaurant/{restaurantId}/counts", 1L).param("date", "2026-01-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.CONFIRMED").value(1))
+                .andExpect(jsonPath("$.totals.PENDING").doesNotExist())
+                .andExpect(jsonPath("$.slots", hasSize(1)))
+                .andExpect(jsonPath("$.slots[0].time").value("19:00:00"))
+                .andExpect(jsonPath("$.slots[0].active").value(1))
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    void shouldNotServeCachedReservationsOnceChanged() throws Exception {
+        mockMvc.perform(get("/api/reservation/{id}", testReservation.getId()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        mockMvc.perform(get("/api/reservation/customer/email/{email}", "john@example.com"))
+                .andExpect(jsonPath("$._embedded.reservations[0].status").value("PENDING"));
+
+        mockMvc.perform(patch("/api/reservation/{id}/confirm", testReservation.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/reservation/{id}", testReservation.getId()))
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+        mockMvc.perform(get("/api/reservation/customer/email/{email}", "john@example.com"))
+                .andExpect(jsonPath("$._embedded.reservations[0].status").value("CONFIRMED"));
+    }
+
+    @Test
+    void shouldRecordTransitionsInOutbox() throws Exception {
+        mockMvc.perform(patch("/api/reservation/{id}/confirm", testReservation.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/reservation/{id}/check-in", testReservation.getId()))
+                .andExpect(status().isOk());
+
+        List<ReservationOutboxEvent> events = outboxRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(10))
+                .stream()
+                .filter(event -> event.getReservationId().equals(testReservation.getId()))
+                .toList();
+
+        assertEquals(List.of(ReservationEventType.CONFIRMED, ReservationEventType.CHECKED_IN),
+                events.stream().map(ReservationOutboxEvent::getType).toList());
+        // Each event carries the version its transition committed
+        assertEquals(List.of(1L, 2L), events.stream().map(ReservationOutboxEvent::getVersion).toList());
+    }
+
+    @Test
+    void shouldConfirmManyReservationsAtOnce() throws Exception {
+        Reservation confirmed = repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(3L)
+                .customerName("Jane Doe")
+                .customerEmail("jane@example.com")
+                .customerPhone("0698765432")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(2)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        mockMvc.perform(patch("/api/reservation/bulk/confirm")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BulkTransitionRequest.builder()
+                                .ids(List.of(testReservation.getId(), confirmed.getId(), 999L, testReservation.getId()))
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.results", hasSize(3)))
+                .andExpect(jsonPath("$._embedded.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$._embedded.results[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$._embedded.results[1].outcome").value("INVALID_STATUS"))
+                .andExpect(jsonPath("$._embedded.results[2].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$._links.self.href").exists());
+
+        Reservation updated = repository.findById(testReservation.getId()).orElseThrow();
+        assertEquals(ReservationStatus.CONFIRMED, updated.getStatus());
+        assertEquals(1L, updated.getVersion());
+
+        List<ReservationOutboxEvent> events = outboxRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(10))
+                .stream()
+                .filter(event -> event.getReservationId().equals(testReservation.getId()))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(1L, events.get(0).getVersion());
+    }
+
+    @Test
+    void shouldRejectManyReservationsAtOnce() throws Exception {
+        mockMvc.perform(patch("/api/reservation/bulk/reject")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BulkTransitionRequest.builder()
+                                .ids(List.of(testReservation.getId()))
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.results[0].status").value("CANCELED"));
+
+        assertNotNull(repository.findById(testReservation.getId()).orElseThrow().getCanceledAt());
+    }
+
+    @Test
+    void shouldValidateBulkTransitionRequest() throws Exception {
+        mockMvc.perform(patch("/api/reservation/bulk/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldRejectReservation() throws Exception {
         mockMvc.perform(patch("/api/reservation/{id}/reject", testReservation.getId()))
@@ -179,6 +568,30 @@ class ReservationControllerIntegrationTest {
                 .andExpect(jsonPath("$.error").value("Invalid Status Transition"));
     }
 
+    @Test
+    void shouldRefuseToCancelCompletedReservation() throws Exception {
+        testReservation.setStatus(ReservationStatus.COMPLETED);
+        repository.save(testReservation);
+
+        mockMvc.perform(delete("/api/reservation/{id}", testReservation.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Can only cancel PENDING or CONFIRMED reservations. Current status: COMPLETED"));
+    }
+
+    @Test
+    void shouldOnlyLinkAllowedTransitions() throws Exception {
+        mockMvc.perform(get("/api/reservation/{id}", testReservation.getId()))
+                .andExpect(jsonPath("$._links.confirm.href").exists())
+                .andExpect(jsonPath("$._links.reject.href").exists())
+                .andExpect(jsonPath("$._links.cancel.href").exists())
+                .andExpect(jsonPath("$._links['check-in']").doesNotExist());
+
+        mockMvc.perform(patch("/api/reservation/{id}/confirm", testReservation.getId()))
+                .andExpect(jsonPath("$._links['check-in'].href").exists())
+                .andExpect(jsonPath("$._links.cancel.href").exists())
+                .andExpect(jsonPath("$._links.confirm").doesNotExist());
+    }
+
     @Test
     void shouldValidateCreateReservationRequest() throws Exception {
         CreateReservationRequest invalidRequest = CreateReservationRequest.builder()
@@ -0,0 +1,143 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
+import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
+import com.project.restaurant_service.api.exception.NoAvailabilityException;
+import com.project.restaurant_service.client.RestaurantServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many concurrent creates are all offered the same candidate tables, the database must let exactly one win each table and slot
+ */
+@SpringBootTest
+class ReservationCreateConcurrencyTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 6, 1);
+    private static final int SLOTS = 10;
+    private static final int TABLES = 3;
+    private static final int REQUESTS_PER_SLOT = 30;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ReservationService service;
+
+    @Autowired
+    private ReservationRepository repository;
+
+    @Autowired
+    private ReservationOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReservationSlotCounter slotCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RestaurantServiceClient restaurantServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        List<TableDTO> tables = new ArrayList<>();
+        for (long id = 1; id <= TABLES; id++) {
+            tables.add(TableDTO.builder().id(id).tableNumber("T" + id).capacity(4).build());
+        }
+
+        // Availability lags behind, every request sees every table as free
+        when(restaurantServiceClient.checkAvailability(any(CheckAvailabilityRequest.class)))
+                .thenReturn(AvailabilityResponse.builder()
+                        .closed(false)
+                        .available(true)
+                        .availableTables(tables)
+                        .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        outboxRepository.deleteAll();
+        jdbcTemplate.update("delete from reservation_slot_count where reservation_date = ?", DATE);
+    }
+
+    @Test
+    void shouldNeverDoubleBookATableUnderConcurrentCreates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int request = 0; request < SLOTS * REQUESTS_PER_SLOT; request++) {
+            LocalTime time = LocalTime.of(12, 0).plusMinutes(15L * (request % SLOTS));
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.create(request(time));
+                    created.incrementAndGet();
+                } catch (NoAvailabilityException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Reservation> reservations = repository.findAll()
+                .stream()
+                .filter(reservation -> reservation.getDate().equals(DATE))
+                .toList();
+
+        Map<String, Long> bookingsPerTableAndSlot = reservations
+                .stream()
+                .collect(Collectors.groupingBy(
+                        reservation -> reservation.getTableId() + "@" + reservation.getTime(),
+                        Collectors.counting()
+                ));
+
+        assertEquals(SLOTS * TABLES, created.get());
+        assertEquals(SLOTS * (REQUESTS_PER_SLOT - TABLES), refused.get());
+        assertEquals(SLOTS * TABLES, reservations.size());
+        assertTrue(bookingsPerTableAndSlot.values().stream().allMatch(count -> count == 1));
+
+        // Every slot counter saw its concurrent first increments
+        assertTrue(slotCounter.countDay(1L, DATE).getSlots().stream().allMatch(slot -> slot.getActive() == TABLES));
+    }
+
+    private CreateReservationRequest request(LocalTime time) {
+        return CreateReservationRequest.builder()
+                .restaurantId(1L)
+                .customerName("John Doe")
+                .customerEmail("john@example.com")
+                .customerPhone("0612345678")
+                .date(DATE)
+                .time(time)
+                .numberOfPeople(4)
+                .build();
+    }
+}
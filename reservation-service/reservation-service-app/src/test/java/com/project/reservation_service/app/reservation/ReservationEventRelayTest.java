@@ -0,0 +1,109 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationEventRelayTest {
+
+    private static final String EVENTS_URL = "http://restaurant:8081" + ReservationEventRelay.EVENTS_PATH;
+
+    @Mock
+    private ReservationOutboxRepository outboxRepository;
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    private MockRestServiceServer server;
+    private ReservationEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+
+        relay = new ReservationEventRelay(outboxRepository, new ReservationMapper(), discoveryClient, builder);
+        ReflectionTestUtils.setField(relay, "targetService", "restaurant-service");
+        ReflectionTestUtils.setField(relay, "internalToken", "secret");
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        relay.start();
+
+        when(outboxRepository.findByPublishedAtIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(event(1L), event(2L)));
+    }
+
+    @Test
+    void shouldMarkBatchPublishedOnceDelivered() {
+        when(discoveryClient.getInstances("restaurant-service"))
+                .thenReturn(List.of(new DefaultServiceInstance("restaurant-1", "restaurant-service", "restaurant", 8081, false)));
+        server.expect(requestTo(EVENTS_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(ReservationEventRelay.INTERNAL_TOKEN_HEADER, "secret"))
+                .andExpect(jsonPath("$[0].reservationId").value(10))
+                .andExpect(jsonPath("$[1].type").value("CONFIRMED"))
+                .andRespond(withSuccess());
+
+        relay.relay();
+
+        server.verify();
+        verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldKeepBatchForRetryWhenDeliveryFails() {
+        when(discoveryClient.getInstances("restaurant-service"))
+                .thenReturn(List.of(new DefaultServiceInstance("restaurant-1", "restaurant-service", "restaurant", 8081, false)));
+        server.expect(requestTo(EVENTS_URL)).andRespond(withServerError());
+
+        relay.relay();
+
+        verify(outboxRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void shouldMarkBatchPublishedWhenNobodyListens() {
+        when(discoveryClient.getInstances("restaurant-service")).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+    }
+
+    private ReservationOutboxEvent event(Long id) {
+        return ReservationOutboxEvent.builder()
+                .id(id)
+                .reservationId(10L)
+                .restaurantId(1L)
+                .tableId(2L)
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(19, 0))
+                .status(ReservationStatus.CONFIRMED)
+                .type(ReservationEventType.CONFIRMED)
+                .version(id)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package com.project.reservation_service.app.reservation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.reservation_service.app.idempotency.IdempotencyRecordRepository;
+import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
+import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
+import com.project.restaurant_service.client.RestaurantServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReservationIdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReservationRepository repository;
+
+    @Autowired
+    private ReservationOutboxRepository outboxRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @MockitoBean
+    private RestaurantServiceClient restaurantServiceClient;
+
+    private CreateReservationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        when(restaurantServiceClient.checkAvailability(any(CheckAvailabilityRequest.class)))
+                .thenReturn(AvailabilityResponse.builder()
+                        .closed(false)
+                        .available(true)
+                        .availableTables(List.of(
+                                TableDTO.builder().id(1L).tableNumber("T1").capacity(4).build(),
+                                TableDTO.builder().id(2L).tableNumber("T2").capacity(4).build()
+                        ))
+                        .build());
+
+        request = CreateReservationRequest.builder()
+                .restaurantId(1L)
+                .customerName("John Doe")
+                .customerEmail("john@example.com")
+                .customerPhone("0612345678")
+                .date(LocalDate.of(2030, 7, 1))
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(4)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        outboxRepository.deleteAll();
+        idempotencyRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReplayResponseToRetriesWithSameKey() throws Exception {
+        String body = objectMapper.writeValueAsString(request);
+
+        String first = mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Long id = objectMapper.readTree(first).get("id").asLong();
+
+        mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.tableId").value(1));
+
+        assertEquals(1, repository.count());
+        verify(restaurantServiceClient, times(1)).checkAvailability(any(CheckAvailabilityRequest.class));
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() throws Exception {
+        mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        request.setNumberOfPeople(2);
+
+        mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Idempotency Key Reused"));
+
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void shouldTakeOverClaimAbandonedPastItsLease() throws Exception {
+        String body = objectMapper.writeValueAsString(request);
+        // Left by an instance that crashed before committing the reservation
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(5);
+        idempotencyRepository.insert("retry-3", hash(body), claimedAt, claimedAt.plusHours(24));
+
+        mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, repository.count());
+        assertNotNull(idempotencyRepository.findById("retry-3").orElseThrow().getResponseBody());
+    }
+
+    @Test
+    void shouldRejectRetryWhileClaimHoldsItsLease() throws Exception {
+        String body = objectMapper.writeValueAsString(request);
+        LocalDateTime claimedAt = LocalDateTime.now();
+        idempotencyRepository.insert("retry-4", hash(body), claimedAt, claimedAt.plusHours(24));
+
+        mockMvc.perform(post("/api/reservation")
+                        .header("Idempotency-Key", "retry-4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict());
+
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void shouldNotCreateWhenTheClaimWasTakenOverMeanwhile() {
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        idempotencyRepository.insert("retry-5", "hash", claimedAt, claimedAt.plusHours(24));
+        idempotencyRepository.takeOver("retry-5", "hash", claimedAt.plusSeconds(1), claimedAt.plusSeconds(1));
+
+        // The completion of the first claim fails, and with it the transaction creating the reservation
+        assertThrows(RuntimeException.class, () -> reservationService.create(request, reservation -> {
+            if (idempotencyRepository.complete("retry-5", claimedAt, "{}") == 0) {
+                throw new IllegalStateException("Claim lost");
+            }
+        }));
+
+        assertEquals(0, repository.count());
+        assertNull(idempotencyRepository.findById("retry-5").orElseThrow().getResponseBody());
+    }
+
+    @Test
+    void shouldCreateAgainWithoutKey() throws Exception {
+        String body = objectMapper.writeValueAsString(request);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/reservation")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isCreated());
+        }
+
+        assertEquals(2, repository.count());
+        assertEquals(0, idempotencyRepository.count());
+    }
+
+    private String hash(String body) throws Exception {
+        // Hashed the way the service hashes the request it read
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(objectMapper.readValue(body, CreateReservationRequest.class)));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class ReservationLinksTest {
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("reservation.example.com");
+        request.setContextPath("/app");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReservationStatus.class)
+    void shouldBuildTheLinksLinkToBuilds(ReservationStatus status) {
+        ReservationDTO reservation = reservation(status);
+
+        List<Link> links = ReservationLinks.fromCurrentRequest().of(reservation);
+
+        assertEquals(rendered(linkToLinks(reservation)), rendered(links));
+    }
+
+    /**
+     * What HAL renders of the links, linkTo also attaches affordances which only HAL-FORMS would render
+     */
+    private static List<String> rendered(List<Link> links) {
+        return links.stream()
+                .map(link -> link.getRel() + " " + link.getHref() + " templated=" + link.isTemplated())
+                .toList();
+    }
+
+    /**
+     * A reservation whose customer needs its path segments encoded
+     */
+    static ReservationDTO reservation(ReservationStatus status) {
+        return ReservationDTO.builder()
+                .id(42L)
+                .restaurantId(1L)
+                .tableId(2L)
+                .customerName("John Doe")
+                .customerEmail("john+dinner@example.com")
+                .customerPhone("+33 6 12 34 56 78")
+                .date(LocalDate.of(2026, 1, 15))
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(4)
+                .status(status.name())
+                .build();
+    }
+
+    /**
+     * The links as the controller built them with {@code linkTo(methodOn(...))}
+     */
+    static List<Link> linkToLinks(ReservationDTO reservation) {
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(ReservationController.class).getById(reservation.getId())).withSelfRel());
+        links.add(linkTo(methodOn(ReservationController.class)
+                .getAllForCustomerByEmail(reservation.getCustomerEmail(), null, null, null))
+                .withRel("customer-reservations-by-email"));
+        links.add(linkTo(methodOn(ReservationController.class)
+                .getAllForCustomerByPhone(reservation.getCustomerPhone(), null, null, null))
+                .withRel("customer-reservations-by-phone"));
+        links.add(linkTo(methodOn(ReservationController.class).getAll(null, null, null)).withRel("all-reservations"));
+
+        for (ReservationTransition transition : ReservationTransition.allowedFrom(ReservationStatus.valueOf(reservation.getStatus()))) {
+            ReservationController controller = methodOn(ReservationController.class);
+            Long id = reservation.getId();
+            links.add(linkTo(switch (transition) {
+                case CONFIRM -> controller.confirm(id);
+                case REJECT -> controller.reject(id);
+                case CHECK_IN -> controller.checkIn(id);
+                case COMPLETE -> controller.complete(id);
+                case CANCEL -> controller.cancel(id);
+            }).withRel(transition.getRel()));
+        }
+        return links;
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.reservation_service.app.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationPartitionMaintainerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ReservationPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new ReservationPartitionMaintainer(jdbcTemplate);
+        ReflectionTestUtils.setField(maintainer, "monthsAhead", 12);
+    }
+
+    @Test
+    void shouldCreatePartitionsFromThisMonthToMonthsAhead() {
+        givenPartitionFunction(1);
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+
+        maintainer.createUpcomingPartitions();
+
+        verify(jdbcTemplate).queryForObject(contains(ReservationPartitionMaintainer.PARTITION_FUNCTION + "(?, ?)"),
+                eq(Integer.class), eq(thisMonth), eq(thisMonth.plusMonths(12)));
+    }
+
+    @Test
+    void shouldSkipDatabasesWithoutPartitioning() {
+        givenPartitionFunction(0);
+
+        maintainer.createUpcomingPartitions();
+
+        verify(jdbcTemplate, never()).queryForObject(contains("(?, ?)"), eq(Integer.class), any(), any());
+    }
+
+    @Test
+    void shouldRetryLaterWhenTheDatabaseFails() {
+        givenPartitionFunction(1);
+        when(jdbcTemplate.queryForObject(contains("(?, ?)"), eq(Integer.class), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertDoesNotThrow(maintainer::createUpcomingPartitions);
+    }
+
+    private void givenPartitionFunction(int count) {
+        when(jdbcTemplate.queryForObject(contains("information_schema.routines"), eq(Integer.class), any()))
+                .thenReturn(count);
+    }
+}
@@ -0,0 +1,276 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.restaurant_service.client.RestaurantServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every {@link ReservationRepository} finder is served by the index meant for it on Postgres.
+ * The finders are called through the repository, auto_explain logging the plans of the statements Hibernate
+ * generates for them, which are read back from the server log.
+ * The table is filled and analyzed first so that the planner weighs the indexes on realistic statistics:
+ * two years of past reservations, finished, and four months ahead, mostly confirmed.
+ * Searches of a day must also read the partition of its month only.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class ReservationQueryPlanContainerTest {
+
+    private static final LocalDate DAY = LocalDate.now();
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final List<ReservationStatus> ACTIVE =
+            List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN);
+    private static final List<ReservationStatus> FINISHED =
+            List.of(ReservationStatus.COMPLETED, ReservationStatus.CANCELED);
+
+    private static final String PRIMARY_KEY = "reservation_pkey";
+    private static final String RESTAURANT_DATE_TIME = "idx_reservation_restaurant_date_time";
+    private static final String CUSTOMER_EMAIL_DATE = "idx_reservation_customer_email_date";
+    private static final String CUSTOMER_PHONE_DATE = "idx_reservation_customer_phone_date";
+    private static final String RESTAURANT_STATUS = "idx_reservation_restaurant_status";
+    private static final String ACTIVE_ID = "idx_reservation_active_id";
+    private static final String SWEEP = "idx_reservation_sweep";
+
+    /**
+     * Index nodes of a plan, named by their index
+     */
+    private static final Pattern INDEX_SCAN =
+            Pattern.compile("(?:Index(?: Only)? Scan(?: Backward)? using|Bitmap Index Scan on) (\\S+)");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\S+)");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("reservation_plan_db")
+            .withUsername("test")
+            .withPassword("test")
+            // Writes the server log to a file the test reads through pg_read_file
+            .withCommand("postgres", "-c", "logging_collector=on");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @MockitoBean
+    private RestaurantServiceClient restaurantServiceClient;
+
+    @Autowired
+    private ReservationRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void fillReservations() {
+        // The partitions of the past months, as the migration of a running service creates them
+        jdbcTemplate.queryForObject("select create_reservation_partitions(current_date - 730, current_date)",
+                Integer.class);
+        jdbcTemplate.update("insert into reservation (restaurant_id, table_id, customer_name, customer_email, "
+                + "customer_phone, reservation_date, reservation_time, number_of_people, status, created_at, version) "
+                + "select 1 + g / 850 % 50, g, 'Customer ' || g, 'customer' || g % 10000 || '@example.com', "
+                + "'06' || lpad((g % 10000)::text, 8, '0'), current_date + (g % 850 - 730), "
+                + "time '12:00' + (g % 20) * interval '30 minutes', 2, "
+                + "case when g % 10 = 0 then 'CANCELED' "
+                + "when g % 850 < 730 then 'COMPLETED' "
+                + "when g % 850 = 730 then 'CHECKED_IN' "
+                + "when g % 50 = 1 then 'PENDING' "
+                + "else 'CONFIRMED' end, "
+                + "localtimestamp - (g % 720) * interval '1 minute', 0 "
+                + "from generate_series(1, 60000) g");
+        jdbcTemplate.execute("analyze reservation");
+    }
+
+    static Stream<Arguments> finders() {
+        Map<String, Object> historyKeys = new LinkedHashMap<>();
+        historyKeys.put("date", DAY);
+        historyKeys.put("id", 100L);
+
+        return Stream.of(
+                finder("findDTOById", PRIMARY_KEY, repository -> repository.findDTOById(1L)),
+                finder("transition", PRIMARY_KEY,
+                        repository -> repository.transition(1L, ReservationTransition.CANCEL, LocalDateTime.now())),
+                finder("findStatesByIdIn", PRIMARY_KEY, repository -> repository.findStatesByIdIn(List.of(1L, 2L, 3L))),
+                finder("findDTOsByRestaurantIdAndDateAndTime", RESTAURANT_DATE_TIME,
+                        repository -> repository.findDTOsByRestaurantIdAndDateAndTime(1L, DAY, TIME)),
+                finder("findDTOsByRestaurantIdAndDate", RESTAURANT_DATE_TIME,
+                        repository -> repository.findDTOsByRestaurantIdAndDate(1L, DAY)),
+                finder("findDTOsByRestaurantIdInAndDateAndTime", RESTAURANT_DATE_TIME,
+                        repository -> repository.findDTOsByRestaurantIdInAndDateAndTime(List.of(1L, 2L, 3L), DAY, TIME)),
+                finder("findDTOsByRestaurantIdInAndDate", RESTAURANT_DATE_TIME,
+                        repository -> repository.findDTOsByRestaurantIdInAndDate(List.of(1L, 2L, 3L), DAY)),
+                finder("findByCustomerEmailOrderByDateDescIdDesc", CUSTOMER_EMAIL_DATE,
+                        repository -> repository.findByCustomerEmailOrderByDateDescIdDesc("john@example.com",
+                                ScrollPosition.forward(historyKeys), Limit.of(50))),
+                finder("findByCustomerPhoneOrderByDateDescIdDesc", CUSTOMER_PHONE_DATE,
+                        repository -> repository.findByCustomerPhoneOrderByDateDescIdDesc("0612345678",
+                                ScrollPosition.keyset(), Limit.of(50))),
+                finder("findByRestaurantIdAndStatusOrderByIdAsc", RESTAURANT_STATUS,
+                        repository -> repository.findByRestaurantIdAndStatusOrderByIdAsc(1L, ReservationStatus.CONFIRMED,
+                                ScrollPosition.forward(Map.of("id", 100L)), Limit.of(50))),
+                finder("findByStatusInAndDateGreaterThanEqualAndIdGreaterThanOrderByIdAsc", ACTIVE_ID,
+                        repository -> repository.findByStatusInAndDateGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                                ACTIVE, DAY, 0L, Limit.of(500))),
+                finder("findByRestaurantIdAndDateAndStatusInOrderByIdAsc", RESTAURANT_DATE_TIME,
+                        repository -> repository.findByRestaurantIdAndDateAndStatusInOrderByIdAsc(1L, DAY, ACTIVE)),
+                finder("claimStalePending", SWEEP,
+                        repository -> repository.claimStalePending(LocalDateTime.now().minusDays(1), DAY, TIME, Limit.of(500))),
+                finder("claimCheckedInBefore", SWEEP,
+                        repository -> repository.claimCheckedInBefore(DAY, TIME, Limit.of(500))),
+                finder("findAllByOrderByIdAsc", PRIMARY_KEY,
+                        repository -> repository.findAllByOrderByIdAsc(ScrollPosition.forward(Map.of("id", 100L)), Limit.of(50))),
+                finder("findDTOsToArchive", PRIMARY_KEY,
+                        repository -> repository.findDTOsToArchive(FINISHED, DAY.minusYears(1), 0L, Limit.of(1000))),
+                finder("streamForExport", RESTAURANT_DATE_TIME, repository -> {
+                    try (Stream<Reservation> reservations = repository.streamForExport(1L, DAY.withDayOfMonth(1), DAY)) {
+                        reservations.forEach(reservation -> {
+                        });
+                    }
+                })
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void shouldServeFinderFromItsIndex(String finder, String index, Consumer<ReservationRepository> call) {
+        List<String> plan = explain(finder, () -> call.accept(repository));
+
+        assertTrue(scannedTables(plan).isEmpty(),
+                () -> finder + " scans whole partitions:\n" + String.join("\n", plan));
+        assertTrue(indexes(plan).contains(index),
+                () -> finder + " is not served by " + index + ":\n" + String.join("\n", plan));
+    }
+
+    @Test
+    void shouldReadOnlyThePartitionOfTheDay() {
+        List<String> plan = explain("day", () -> repository.findDTOsByRestaurantIdAndDate(1L, DAY));
+
+        String partition = "reservation_" + DAY.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        assertTrue(plan.stream().anyMatch(line -> line.contains(" on " + partition)),
+                () -> "The day search does not read " + partition + ":\n" + String.join("\n", plan));
+        assertTrue(plan.stream().allMatch(line -> !line.contains(" on reservation_") || line.contains(" on " + partition)),
+                () -> "The day search reads other partitions than " + partition + ":\n" + String.join("\n", plan));
+    }
+
+    private static Arguments finder(String name, String index, Consumer<ReservationRepository> call) {
+        return Arguments.of(name, index, call);
+    }
+
+    /**
+     * Runs queries on the connection of the test transaction, logging their plans between two markers
+     *
+     * @return The lines logged between the markers
+     */
+    private List<String> explain(String marker, Runnable queries) {
+        jdbcTemplate.execute("load 'auto_explain'");
+        jdbcTemplate.execute("set local auto_explain.log_min_duration = 0");
+        mark("plan-start:" + marker);
+
+        queries.run();
+
+        mark("plan-end:" + marker);
+        jdbcTemplate.execute("set local auto_explain.log_min_duration = -1");
+
+        // The logging collector writes asynchronously
+        for (int attempt = 0; attempt < 50; attempt++) {
+            String log = jdbcTemplate.queryForObject("select pg_read_file(pg_current_logfile())", String.class);
+            int start = log.lastIndexOf("plan-start:" + marker);
+            int end = log.lastIndexOf("plan-end:" + marker);
+            if (start >= 0 && end > start) {
+                return log.substring(start, end).lines().toList();
+            }
+            sleep();
+        }
+        return fail("No plan logged for " + marker);
+    }
+
+    /**
+     * Logs a marker once the plans of the statements run before it are logged.
+     * A plan is only logged when its portal is dropped, which the next statement does for the unnamed portal
+     * and the close of the statement for the cursor of a stream.
+     */
+    private void mark(String marker) {
+        jdbcTemplate.execute("select '" + marker + "'");
+        jdbcTemplate.execute("select 'flush'");
+    }
+
+    /**
+     * @return The indexes a plan reads, partition indexes being named after the index of the partitioned table
+     */
+    private Set<String> indexes(List<String> plan) {
+        Set<String> indexes = new LinkedHashSet<>();
+        for (String line : plan) {
+            Matcher matcher = INDEX_SCAN.matcher(line);
+            while (matcher.find()) {
+                indexes.add(jdbcTemplate.queryForObject(
+                        "select coalesce(pg_partition_root(cast(? as regclass))::text, ?)", String.class,
+                        matcher.group(1), matcher.group(1)));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @return The partitions holding reservations a plan reads whole, the empty ones not being worth an index scan
+     */
+    private Set<String> scannedTables(List<String> plan) {
+        Set<String> tables = new LinkedHashSet<>();
+        for (String line : plan) {
+            Matcher matcher = SEQ_SCAN.matcher(line);
+            while (matcher.find()) {
+                if (jdbcTemplate.queryForObject("select reltuples > 0 from pg_class where oid = cast(? as regclass)",
+                        Boolean.class, matcher.group(1))) {
+                    tables.add(matcher.group(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,29 +2,46 @@ package com.project.reservation_service.app.reservation;
 
 import com.project.reservation_service.api.dto.ReservationDTO;
 import com.project.reservation_service.api.dto.requests.CreateReservationRequest;
+import com.project.reservation_service.api.enums.ReservationEventType;
 import com.project.reservation_service.api.enums.ReservationStatus;
 import com.project.reservation_service.api.exception.InvalidStatusTransitionException;
 import com.project.reservation_service.api.exception.ReservationNotFoundException;
+import com.project.reservation_service.app.archive.ReservationArchive;
 import com.project.restaurant_service.api.dto.TableDTO;
 import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
 import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
 import com.project.restaurant_service.api.exception.NoAvailabilityException;
 import com.project.restaurant_service.client.RestaurantServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +56,21 @@ class ReservationServiceTest {
     @Mock
     private ReservationMapper mapper;
 
+    @Mock
+    private ReservationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ReservationArchive archive;
+
+    @Mock
+    private ReservationSlotCounter slotCounter;
+
+    @Spy
+    private ReservationCache cache = ReservationCacheTest.newCache(new SimpleMeterRegistry());
+
     @InjectMocks
     private ReservationService service;
 
@@ -101,6 +133,10 @@ class ReservationServiceTest {
                 .numberOfPeople(4)
                 .status("PENDING")
                 .build();
+
+        // Run every claim attempt inline
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -129,6 +165,48 @@ class ReservationServiceTest {
         verify(restaurantClient).checkAvailability(any(CheckAvailabilityRequest.class));
         verify(repository).save(any(Reservation.class));
         verify(mapper).toDTO(any(Reservation.class));
+        verify(eventPublisher).publish(reservation, ReservationEventType.CREATED);
+    }
+
+    @Test
+    void shouldClaimNextTableWhenFirstOneWasTakenConcurrently() {
+        TableDTO otherTable = TableDTO.builder()
+                .id(3L)
+                .tableNumber("T3")
+                .capacity(6)
+                .build();
+        availabilityResponse.setAvailableTables(List.of(tableDTO, otherTable));
+
+        when(restaurantClient.checkAvailability(any(CheckAvailabilityRequest.class)))
+                .thenReturn(availabilityResponse);
+        when(mapper.toEntity(any(CreateReservationRequest.class)))
+                .thenAnswer(invocation -> Reservation.builder().restaurantId(1L).build());
+        when(repository.save(any(Reservation.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "duplicate", new SQLException(), "UK_RESERVATION_ACTIVE_SLOT_INDEX_A")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
+
+        service.create(createRequest);
+
+        ArgumentCaptor<Reservation> saved = ArgumentCaptor.forClass(Reservation.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertEquals(List.of(2L, 3L), saved.getAllValues().stream().map(Reservation::getTableId).toList());
+        verify(eventPublisher, times(1)).publish(any(), eq(ReservationEventType.CREATED));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenEveryCandidateWasTakenConcurrently() {
+        when(restaurantClient.checkAvailability(any(CheckAvailabilityRequest.class)))
+                .thenReturn(availabilityResponse);
+        when(mapper.toEntity(any(CreateReservationRequest.class)))
+                .thenAnswer(invocation -> Reservation.builder().restaurantId(1L).build());
+        when(repository.save(any(Reservation.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "duplicate", new SQLException(), "uk_reservation_active_slot")));
+
+        assertThrows(NoAvailabilityException.class, () -> service.create(createRequest));
+        verify(eventPublisher, never()).publish(any(), any());
     }
 
     @Test
@@ -149,6 +227,7 @@ class ReservationServiceTest {
 
         verify(restaurantClient).checkAvailability(any(CheckAvailabilityRequest.class));
         verify(repository, never()).save(any(Reservation.class));
+        verify(eventPublisher, never()).publish(any(), any());
     }
 
     @Test
@@ -173,19 +252,19 @@ class ReservationServiceTest {
 
     @Test
     void shouldGetReservationById() {
-        when(repository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(mapper.toDTO(reservation)).thenReturn(reservationDTO);
+        when(repository.findDTOById(1L)).thenReturn(Optional.of(reservationDTO));
 
         ReservationDTO result = service.getById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(repository).findById(1L);
+        verify(repository).findDTOById(1L);
+        verifyNoInteractions(mapper);
     }
 
     @Test
     void shouldThrowExceptionWhenReservationNotFound() {
-        when(repository.findById(999L)).thenReturn(Optional.empty());
+        when(repository.findDTOById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ReservationNotFoundException.class, () -> {
             service.getById(999L);
@@ -194,51 +273,131 @@ class ReservationServiceTest {
 
     @Test
     void shouldConfirmReservation() {
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        when(repository.transition(eq(1L), eq(ReservationTransition.CONFIRM), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(ReservationStatus.PENDING));
         when(repository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(repository.save(any(Reservation.class))).thenReturn(reservation);
         when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
 
         ReservationDTO result = service.confirmReservation(1L);
 
         assertNotNull(result);
-        verify(repository).save(argThat(r -> r.getStatus() == ReservationStatus.CONFIRMED));
+        verify(slotCounter).moved(reservation, ReservationStatus.PENDING);
+        verify(eventPublisher).publish(reservation, ReservationEventType.CONFIRMED);
     }
 
     @Test
     void shouldThrowExceptionWhenConfirmingNonPendingReservation() {
         reservation.setStatus(ReservationStatus.CONFIRMED);
+        when(repository.transition(eq(1L), eq(ReservationTransition.CONFIRM), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
         when(repository.findById(1L)).thenReturn(Optional.of(reservation));
 
-        assertThrows(InvalidStatusTransitionException.class, () -> {
+        InvalidStatusTransitionException exception = assertThrows(InvalidStatusTransitionException.class, () -> {
             service.confirmReservation(1L);
         });
+
+        assertEquals("Can only confirm PENDING reservations. Current status: CONFIRMED", exception.getMessage());
+        verify(slotCounter, never()).moved(any(Reservation.class), any());
+        verify(eventPublisher, never()).publish(any(), any());
+    }
+
+    @Test
+    void shouldThrowNotFoundWhenTransitioningMissingReservation() {
+        when(repository.transition(eq(1L), eq(ReservationTransition.CHECK_IN), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ReservationNotFoundException.class, () -> {
+            service.checkInReservation(1L);
+        });
+    }
+
+    @Test
+    void shouldNotReadReservationBeforeTransition() {
+        reservation.setStatus(ReservationStatus.CANCELED);
+        when(repository.transition(eq(1L), eq(ReservationTransition.CANCEL), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(ReservationStatus.CONFIRMED));
+        when(repository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
+
+        service.cancelReservation(1L);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).transition(eq(1L), eq(ReservationTransition.CANCEL), any(LocalDateTime.class));
+        order.verify(repository).findById(1L);
     }
 
     @Test
     void shouldCancelReservation() {
+        reservation.setStatus(ReservationStatus.CANCELED);
+        when(repository.transition(eq(1L), eq(ReservationTransition.CANCEL), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(ReservationStatus.CONFIRMED));
         when(repository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(repository.save(any(Reservation.class))).thenReturn(reservation);
         when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
 
         ReservationDTO result = service.cancelReservation(1L);
 
         assertNotNull(result);
-        verify(repository).save(argThat(r ->
-                r.getStatus() == ReservationStatus.CANCELED && r.getCanceledAt() != null
-        ));
+        verify(slotCounter).moved(reservation, ReservationStatus.CONFIRMED);
+        verify(eventPublisher).publish(reservation, ReservationEventType.CANCELED);
     }
 
     @Test
     void shouldGetReservationsByEmail() {
-        when(repository.findByCustomerEmailOrderByDateDesc("john@example.com"))
-                .thenReturn(List.of(reservation));
+        ScrollPosition position = ScrollPosition.keyset();
+        when(repository.findByCustomerEmailOrderByDateDescIdDesc("john@example.com", position, Limit.of(20)))
+                .thenReturn(Window.from(List.of(reservation), ScrollPosition::offset));
         when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
 
-        List<ReservationDTO> result = service.getReservationsByCustomerEmail("john@example.com");
+        Window<ReservationDTO> result = service.getReservationsByCustomerEmail("john@example.com", position, 20);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(repository).findByCustomerEmailOrderByDateDesc("john@example.com");
+        verify(repository).findByCustomerEmailOrderByDateDescIdDesc("john@example.com", position, Limit.of(20));
         verify(mapper).toDTO(any(Reservation.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldMergeArchivedReservationsIntoCustomerHistory() {
+        ScrollPosition position = ScrollPosition.keyset();
+        when(repository.findByCustomerEmailOrderByDateDescIdDesc("john@example.com", position, Limit.of(2)))
+                .thenReturn(Window.from(List.of(reservation), ScrollPosition::offset));
+        when(mapper.toDTO(any(Reservation.class))).thenReturn(reservationDTO);
+        when(archive.findByCustomerEmail("john@example.com")).thenReturn(List.of(
+                historyDTO(7L, LocalDate.of(2024, 6, 1)),
+                historyDTO(3L, LocalDate.of(2023, 2, 1))));
+
+        Window<ReservationDTO> result = service.getReservationsByCustomerEmail("john@example.com", position, 2);
+
+        assertEquals(List.of(1L, 7L), result.stream().map(ReservationDTO::getId).toList());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void shouldContinueCustomerHistoryInTheArchive() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("date", LocalDate.of(2024, 6, 1));
+        keys.put("id", 7L);
+        ScrollPosition position = ScrollPosition.forward(keys);
+        when(repository.findByCustomerEmailOrderByDateDescIdDesc("john@example.com", position, Limit.of(2)))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        when(archive.findByCustomerEmail("john@example.com")).thenReturn(List.of(
+                historyDTO(7L, LocalDate.of(2024, 6, 1)),
+                historyDTO(3L, LocalDate.of(2023, 2, 1))));
+
+        Window<ReservationDTO> result = service.getReservationsByCustomerEmail("john@example.com", position, 2);
+
+        assertEquals(List.of(3L), result.stream().map(ReservationDTO::getId).toList());
+        assertFalse(result.hasNext());
+    }
+
+    private ReservationDTO historyDTO(Long id, LocalDate date) {
+        return ReservationDTO.builder()
+                .id(id)
+                .customerEmail("john@example.com")
+                .date(date)
+                .status(ReservationStatus.COMPLETED.name())
+                .build();
+    }
+}
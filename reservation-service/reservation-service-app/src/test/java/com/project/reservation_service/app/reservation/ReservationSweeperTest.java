@@ -0,0 +1,121 @@
+package com.project.reservation_service.app.reservation;
+
+import com.project.reservation_service.api.enums.ReservationStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationSweeperTest {
+
+    @Autowired
+    private ReservationSweeper sweeper;
+
+    @Autowired
+    private ReservationRepository repository;
+
+    @Autowired
+    private ReservationOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(sweeper, "batchSize", 500);
+        repository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReleaseStaleReservationsOnly() {
+        LocalDate today = LocalDate.now();
+        Reservation pastPending = save(ReservationStatus.PENDING, today.minusDays(1), 1L);
+        Reservation forgottenPending = save(ReservationStatus.PENDING, today.plusDays(10), 2L);
+        jdbcTemplate.update("update reservation set created_at = dateadd('DAY', -2, created_at) where id = ?", forgottenPending.getId());
+        Reservation upcomingPending = save(ReservationStatus.PENDING, today.plusDays(10), 3L);
+        Reservation pastCheckedIn = save(ReservationStatus.CHECKED_IN, today.minusDays(1), 4L);
+        Reservation currentCheckedIn = save(ReservationStatus.CHECKED_IN, today.plusDays(1), 5L);
+        Reservation pastConfirmed = save(ReservationStatus.CONFIRMED, today.minusDays(1), 6L);
+        double reclaimedBefore = reclaimed("expired") + reclaimed("completed");
+
+        sweeper.sweep();
+
+        assertEquals(ReservationStatus.CANCELED, status(pastPending));
+        assertNotNull(repository.findById(pastPending.getId()).orElseThrow().getCanceledAt());
+        assertEquals(ReservationStatus.CANCELED, status(forgottenPending));
+        assertEquals(ReservationStatus.PENDING, status(upcomingPending));
+        assertEquals(ReservationStatus.COMPLETED, status(pastCheckedIn));
+        assertEquals(ReservationStatus.CHECKED_IN, status(currentCheckedIn));
+        assertEquals(ReservationStatus.CONFIRMED, status(pastConfirmed));
+
+        assertEquals(3, outboxRepository.count());
+        assertEquals(3, reclaimed("expired") + reclaimed("completed") - reclaimedBefore);
+    }
+
+    @Test
+    void shouldSplitTheWorkBetweenConcurrentSweepers() throws Exception {
+        for (long table = 1; table <= 40; table++) {
+            save(ReservationStatus.PENDING, LocalDate.now().minusDays(1), table);
+        }
+        ReflectionTestUtils.setField(sweeper, "batchSize", 5);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> sweeps = List.of(executor.submit(sweeper::sweep), executor.submit(sweeper::sweep));
+            for (Future<?> sweep : sweeps) {
+                sweep.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(repository.findAll().stream().allMatch(reservation -> reservation.getStatus() == ReservationStatus.CANCELED));
+        // Every reservation moved exactly once
+        assertEquals(40, outboxRepository.count());
+    }
+
+    private Reservation save(ReservationStatus status, LocalDate date, Long tableId) {
+        return repository.save(Reservation.builder()
+                .restaurantId(1L)
+                .tableId(tableId)
+                .customerName("John Doe")
+                .customerEmail("john@example.com")
+                .date(date)
+                .time(LocalTime.of(19, 0))
+                .numberOfPeople(2)
+                .status(status)
+                .build());
+    }
+
+    private ReservationStatus status(Reservation reservation) {
+        return repository.findById(reservation.getId()).orElseThrow().getStatus();
+    }
+
+    private double reclaimed(String outcome) {
+        return meterRegistry.counter(ReservationSweeper.RECLAIMED_METRIC, "outcome", outcome).count();
+    }
+}
@@ -1,15 +1,53 @@
 package com.project.reservation_service.client;
 
 import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.dto.requests.BatchSearchReservationsRequest;
 import com.project.reservation_service.api.dto.requests.SearchReservationsRequest;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @FeignClient(name = "reservation-service")
 public interface ReservationServiceClient {
 
+    /**
+     * Searches reservations of a restaurant for a date, and a time when one is given.
+     * The endpoint answers with a HAL collection, hence the {@link CollectionModel} return type.
+     */
     @PostMapping("/api/reservation/search")
-    List<ReservationDTO> getReservationsByRestaurantAndDateAndTime(SearchReservationsRequest request);
+    CollectionModel<ReservationDTO> getReservationsByRestaurantAndDateAndTime(SearchReservationsRequest request);
+
+    /**
+     * Searches reservations of several restaurants for a date, and a time when one is given, in one round trip
+     */
+    @PostMapping("/api/reservation/search/batch")
+    CollectionModel<ReservationDTO> getReservationsByRestaurantsAndDateAndTime(BatchSearchReservationsRequest request);
+
+    /**
+     * Keyset page of the current state of every reservation holding its table from a date on, ordered by reservation id
+     *
+     * @param after Id of the last reservation of the previous page, 0 for the first page
+     */
+    @GetMapping("/api/reservation/events/active")
+    CollectionModel<ReservationEventDTO> getActiveReservationEvents(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("after") Long after,
+            @RequestParam("size") Integer size
+    );
+
+    /**
+     * Current state of every reservation of a restaurant holding its table on a date, ordered by reservation id
+     */
+    @GetMapping("/api/reservation/events/active/restaurant/{restaurantId}")
+    CollectionModel<ReservationEventDTO> getActiveReservationEventsOfDay(
+            @PathVariable("restaurantId") Long restaurantId,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    );
 }
@@ -0,0 +1,53 @@
+package com.project.restaurant_service.api.dto.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class AvailabilityGridRequest {
+
+    @NotNull(message = "restaurantId is required")
+    @Schema(description = "ID of the restaurant", example = "1")
+    private Long restaurantId;
+
+    @NotNull(message = "date is required")
+    @Schema(description = "Date of reservation", example = "2026-01-15")
+    private LocalDate date;
+
+    @NotNull (message = "numberOfPeople is required")
+    @Min(value = 1, message = "At least 1 guest required")
+    @Max(value = 20, message = "Only 20 guests maximum")
+    @Schema(description = "Number of people", example = "4", minimum = "1", maximum = "20")
+    private Integer numberOfPeople;
+
+    @Schema(description = "First slot of the grid, defaults to the configured opening time", example = "11:00")
+    private LocalTime from;
+
+    @Schema(description = "Last slot of the grid, defaults to the configured closing time", example = "22:45")
+    private LocalTime to;
+
+    @Min(value = 5, message = "Slots are at least 5 minutes long")
+    @Max(value = 240, message = "Slots are at most 240 minutes long")
+    @Schema(description = "Length of a slot in minutes, defaults to the configured slot length", example = "15")
+    private Integer slotMinutes;
+
+    @JsonIgnore
+    @AssertTrue(message = "from must not be after to")
+    public boolean isRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.restaurant_service.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class AvailabilityGridResponse {
+    private Long restaurantId;
+    private LocalDate date;
+    private Integer numberOfPeople;
+    private Boolean closed;
+    private String message;
+    private List<SlotAvailability> slots;
+}
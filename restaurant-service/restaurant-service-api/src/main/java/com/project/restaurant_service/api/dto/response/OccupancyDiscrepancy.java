@@ -0,0 +1,19 @@
+package com.project.restaurant_service.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class OccupancyDiscrepancy {
+    private LocalTime time;
+    private Long tableId;
+    private Boolean indexed;
+    private Boolean reserved;
+}
@@ -0,0 +1,23 @@
+package com.project.restaurant_service.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class OccupancyVerificationResponse {
+    private Long restaurantId;
+    private LocalDate date;
+    private Boolean consistent;
+    private Boolean rebuilt;
+    private Integer indexedBookings;
+    private Integer reservedBookings;
+    private List<OccupancyDiscrepancy> discrepancies;
+}
@@ -0,0 +1,19 @@
+package com.project.restaurant_service.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ProjectionStatusResponse {
+    private Boolean ready;
+    private LocalDateTime lastSyncedAt;
+    private Integer reservations;
+    private Integer appliedEvents;
+}
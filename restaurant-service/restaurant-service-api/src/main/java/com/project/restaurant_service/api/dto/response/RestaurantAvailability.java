@@ -0,0 +1,21 @@
+package com.project.restaurant_service.api.dto.response;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class RestaurantAvailability {
+    private Long restaurantId;
+    private String restaurantName;
+    private Integer freeTables;
+    private Integer bestFitCapacity;
+    private List<TableDTO> availableTables;
+}
@@ -0,0 +1,20 @@
+package com.project.restaurant_service.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class SlotAvailability {
+    private LocalTime time;
+    private Boolean available;
+    private Integer freeTables;
+    private List<Long> freeTableIds;
+}
@@ -0,0 +1,11 @@
+package com.project.restaurant_service.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("Invalid page cursor, follow the next and prev links of a previous page");
+    }
+}
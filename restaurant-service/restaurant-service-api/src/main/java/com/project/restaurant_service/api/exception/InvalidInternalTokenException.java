@@ -0,0 +1,11 @@
+package com.project.restaurant_service.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidInternalTokenException extends RuntimeException {
+    public InvalidInternalTokenException() {
+        super("Internal endpoints are restricted to the other services.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.restaurant_service.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProjectionNotReadyException extends RuntimeException {
+    public ProjectionNotReadyException() {
+        super("Reservations are not synchronized yet, availability cannot be checked. Retry shortly.");
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.restaurant_service.api.pagination;
+
+import com.project.restaurant_service.api.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pagination helpers, shared by the listings of both services.
+ * A cursor is the opaque encoding of the sort keys of the row a page starts after, or ends before,
+ * so that every page costs one index range scan whatever its depth.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Sort keys that may appear in a cursor
+     */
+    private static final Map<String, Function<String, Object>> KEY_PARSERS = Map.of(
+            "id", Long::valueOf,
+            "date", LocalDate::parse
+    );
+
+    private KeysetCursor() {
+    }
+
+    public static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @param after  Cursor of the page to continue forward from, as found in a next link
+     * @param before Cursor of the page to continue backward from, as found in a prev link, wins over after
+     * @param keys   Sort keys of the listing, in sort order. A cursor of another listing is refused.
+     */
+    public static KeysetScrollPosition position(String after, String before, String... keys) {
+        if (before != null) {
+            return ScrollPosition.backward(decode(before, keys));
+        }
+        if (after != null) {
+            return ScrollPosition.forward(decode(after, keys));
+        }
+        return ScrollPosition.keyset();
+    }
+
+    /**
+     * Adds the next and prev links of a page, expanded so that clients follow them as they are
+     *
+     * @param requested The position the page was read from
+     * @param page      Builds the link to a page from its after and before cursors
+     */
+    public static void addPageLinks(List<Link> links,
+                                    Window<?> window,
+                                    KeysetScrollPosition requested,
+                                    BiFunction<String, String, WebMvcLinkBuilder> page) {
+        if (window.isEmpty()) {
+            return;
+        }
+
+        String first = encode(window.positionAt(0));
+        String last = encode(window.positionAt(window.size() - 1));
+
+        // Going forward hasNext tells whether more rows follow, going backward whether more rows precede
+        boolean hasNext = requested.scrollsBackward() || window.hasNext();
+        boolean hasPrevious = requested.scrollsBackward() ? window.hasNext() : !requested.isInitial();
+
+        if (hasNext) {
+            links.add(page.apply(last, null).withRel("next").expand());
+        }
+        if (hasPrevious) {
+            links.add(page.apply(null, first).withRel("prev").expand());
+        }
+    }
+
+    static String encode(ScrollPosition position) {
+        String keys = ((KeysetScrollPosition) position).getKeys()
+                .entrySet()
+                .stream()
+                .map(key -> key.getKey() + "=" + key.getValue())
+                .collect(Collectors.joining("&"));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The keys of the cursor in the given order, when it holds exactly those
+     */
+    static Map<String, Object> decode(String cursor, String... keys) {
+        Map<String, Object> decoded = decode(cursor);
+        if (!decoded.keySet().equals(Set.of(keys))) {
+            throw new InvalidCursorException();
+        }
+
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        for (String key : keys) {
+            ordered.put(key, decoded.get(key));
+        }
+        return ordered;
+    }
+
+    static Map<String, Object> decode(String cursor) {
+        try {
+            String keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            // Keys keep the order of the sort they come from
+            Map<String, Object> decoded = new LinkedHashMap<>();
+            for (String key : keys.split("&")) {
+                String[] nameAndValue = key.split("=", 2);
+                Function<String, Object> parser = KEY_PARSERS.get(nameAndValue[0]);
+                if (parser == null || nameAndValue.length != 2) {
+                    throw new InvalidCursorException();
+                }
+                decoded.put(nameAndValue[0], parser.apply(nameAndValue[1]));
+            }
+            return decoded;
+        } catch (RuntimeException e) {
+            throw e instanceof InvalidCursorException invalid ? invalid : new InvalidCursorException();
+        }
+    }
+}
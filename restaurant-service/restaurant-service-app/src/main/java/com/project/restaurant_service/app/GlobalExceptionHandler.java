@@ -1,5 +1,8 @@
 package com.project.restaurant_service.app;
 
+import com.project.restaurant_service.api.exception.InvalidCursorException;
+import com.project.restaurant_service.api.exception.InvalidInternalTokenException;
+import com.project.restaurant_service.api.exception.ProjectionNotReadyException;
 import com.project.restaurant_service.api.exception.RestaurantNotFoundException;
 import com.project.restaurant_service.api.exception.TableNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -57,6 +60,39 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Bad Request");
+        errorResponse.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(ProjectionNotReadyException.class)
+    public ResponseEntity<Map<String, Object>> handleProjectionNotReady(ProjectionNotReadyException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidInternalTokenException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidInternalToken(InvalidInternalTokenException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.UNAUTHORIZED.value());
+        errorResponse.put("error", "Unauthorized");
+        errorResponse.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
+
     @ExceptionHandler(feign.FeignException.class)
     public ResponseEntity<Map<String, Object>> handleFeignException(feign.FeignException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -0,0 +1,43 @@
+package com.project.restaurant_service.app;
+
+import com.project.restaurant_service.api.exception.InvalidInternalTokenException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Restricts the {@code /internal/**} endpoints to the other services, which send the shared internal token.
+ * The gateway routes none of them, the token keeps out the clients reaching the service directly.
+ */
+@Component
+public class InternalTokenInterceptor implements HandlerInterceptor {
+
+    public static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    @Value("${internal.token:}")
+    private String token;
+
+    private byte[] expected;
+
+    @PostConstruct
+    void init() {
+        expected = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String sent = request.getHeader(INTERNAL_TOKEN_HEADER);
+        // Without a configured token internal endpoints are closed rather than open
+        if (expected.length == 0 || sent == null
+                || !MessageDigest.isEqual(expected, sent.getBytes(StandardCharsets.UTF_8))) {
+            throw new InvalidInternalTokenException();
+        }
+        return true;
+    }
+}
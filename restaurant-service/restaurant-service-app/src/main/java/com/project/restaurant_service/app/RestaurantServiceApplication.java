@@ -3,8 +3,10 @@ package com.project.restaurant_service.app;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableFeignClients(basePackages = {
     "com.project.restaurant_service.app",
     "com.project.reservation_service.client"
@@ -1,15 +1,28 @@
 package com.project.restaurant_service.app.availability;
 
+import com.project.restaurant_service.api.dto.requests.AvailabilityGridRequest;
+import com.project.restaurant_service.api.dto.requests.AvailabilitySearchRequest;
 import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
+import com.project.restaurant_service.api.dto.response.AvailabilityGridResponse;
 import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
+import com.project.restaurant_service.api.dto.response.RestaurantAvailability;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/availability")
@@ -18,6 +31,10 @@ import org.springframework.web.bind.annotation.*;
 public class AvailabilityController {
 
     private final AvailabilityService service;
+    private final AvailabilitySearchService searchService;
+
+    @Value("${availability.search.stream-timeout:30s}")
+    private Duration streamTimeout;
 
     @PostMapping("/check")
     @ResponseStatus(HttpStatus.OK)
@@ -34,4 +51,66 @@ public class AvailabilityController {
             request.getNumberOfPeople()
         );
     }
+
+    @PostMapping("/grid")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Check the table availability of every slot of a day in a restaurant at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability grid"),
+            @ApiResponse(responseCode = "400", description = "Bad Request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public AvailabilityGridResponse checkAvailabilityGrid(@Valid @RequestBody AvailabilityGridRequest request) {
+        return service.checkAvailabilityGrid(
+            request.getRestaurantId(),
+            request.getDate(),
+            request.getNumberOfPeople(),
+            request.getFrom(),
+            request.getTo(),
+            request.getSlotMinutes()
+        );
+    }
+
+    @PostMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Search every restaurant, or the given ones, able to seat a party at a certain time and date, best fit first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked restaurants with free tables"),
+            @ApiResponse(responseCode = "400", description = "Bad Request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public List<RestaurantAvailability> search(@Valid @RequestBody AvailabilitySearchRequest request) {
+        return searchService.search(request);
+    }
+
+    @PostMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Same search streamed as newline delimited JSON, each shard of restaurants being written, ranked, as soon as it is evaluated")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of restaurants with free tables"),
+            @ApiResponse(responseCode = "400", description = "Bad Request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
+    })
+    public ResponseBodyEmitter searchStreaming(@Valid @RequestBody AvailabilitySearchRequest request) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeout.toMillis());
+
+        searchService.searchStreaming(request, results -> {
+                    try {
+                        for (RestaurantAvailability result : results) {
+                            emitter.send(result, MediaType.APPLICATION_JSON);
+                            emitter.send("\n", MediaType.TEXT_PLAIN);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenComplete((done, error) -> {
+                    if (error == null) {
+                        emitter.complete();
+                    } else {
+                        emitter.completeWithError(error);
+                    }
+                });
+
+        return emitter;
+    }
 }
@@ -0,0 +1,169 @@
+package com.project.restaurant_service.app.availability;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.requests.AvailabilitySearchRequest;
+import com.project.restaurant_service.api.dto.response.RestaurantAvailability;
+import com.project.restaurant_service.app.restaurant.Restaurant;
+import com.project.restaurant_service.app.restaurant.RestaurantRepository;
+import com.project.restaurant_service.app.table.TableCatalog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the availability of many restaurants at once.
+ * Candidate tables of every restaurant are read from the table catalog, restaurants are then split in shards
+ * evaluated in parallel against the occupancy of the local reservation projection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilitySearchService {
+
+    /**
+     * Smallest sufficient table first so that large tables stay free for large parties, then most free tables
+     */
+    static final Comparator<RestaurantAvailability> RANKING = Comparator
+            .comparing(RestaurantAvailability::getBestFitCapacity)
+            .thenComparing(RestaurantAvailability::getFreeTables, Comparator.reverseOrder())
+            .thenComparing(RestaurantAvailability::getRestaurantId);
+
+    private final RestaurantRepository restaurantRepository;
+    private final TableCatalog tableCatalog;
+    private final OccupancyService occupancyService;
+
+    @Value("${availability.search.shard-size:25}")
+    private Integer shardSize;
+
+    @Value("${availability.search.parallelism:8}")
+    private Integer parallelism;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Waits for every shard and ranks all the restaurants that can seat the party
+     */
+    public List<RestaurantAvailability> search(AvailabilitySearchRequest request) {
+        List<CompletableFuture<List<RestaurantAvailability>>> shards = searchShards(request);
+
+        try {
+            return shards
+                    .stream()
+                    .map(CompletableFuture::join)
+                    .flatMap(List::stream)
+                    .sorted(RANKING)
+                    .toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Hands the ranked results of every shard to the consumer as soon as that shard is evaluated
+     *
+     * @param onShard Called once per shard, possibly from several threads but never concurrently
+     * @return Completes once every shard has been handed over
+     */
+    public CompletableFuture<Void> searchStreaming(AvailabilitySearchRequest request,
+                                                   Consumer<List<RestaurantAvailability>> onShard) {
+        Object lock = new Object();
+
+        CompletableFuture<?>[] shards = searchShards(request)
+                .stream()
+                .map(shard -> shard.thenAccept(results -> {
+                    synchronized (lock) {
+                        onShard.accept(results);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(shards);
+    }
+
+    private List<CompletableFuture<List<RestaurantAvailability>>> searchShards(AvailabilitySearchRequest request) {
+        List<Restaurant> restaurants = request.getRestaurantIds() == null || request.getRestaurantIds().isEmpty()
+                ? restaurantRepository.findByIsClosedFalse()
+                : restaurantRepository.findByIdInAndIsClosedFalse(request.getRestaurantIds());
+
+        if (restaurants.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Restaurant> restaurantsById = restaurants
+                .stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+
+        // Suitable tables come best fit first
+        Map<Long, List<TableDTO>> tablesByRestaurant = tableCatalog.tablesSeating(restaurantsById.keySet(), request.getNumberOfPeople());
+
+        log.info("Searching availability of {} restaurants with suitable tables on the {} {}",
+                tablesByRestaurant.size(), request.getDate(), request.getTime());
+
+        List<Long> candidates = new ArrayList<>(tablesByRestaurant.keySet());
+        List<CompletableFuture<List<RestaurantAvailability>>> shards = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += shardSize) {
+            List<Long> shard = candidates.subList(from, Math.min(from + shardSize, candidates.size()));
+            shards.add(CompletableFuture.supplyAsync(
+                    () -> evaluate(shard, restaurantsById, tablesByRestaurant, request.getDate(), request.getTime()),
+                    executor
+            ));
+        }
+        return shards;
+    }
+
+    private List<RestaurantAvailability> evaluate(List<Long> restaurantIds,
+                                                  Map<Long, Restaurant> restaurantsById,
+                                                  Map<Long, List<TableDTO>> tablesByRestaurant,
+                                                  LocalDate date,
+                                                  LocalTime time) {
+        Map<Long, Set<Long>> bookedByRestaurant = occupancyService.bookedTables(restaurantIds, date, time);
+
+        List<RestaurantAvailability> results = new ArrayList<>();
+        for (Long restaurantId : restaurantIds) {
+            Set<Long> booked = bookedByRestaurant.getOrDefault(restaurantId, Set.of());
+            List<TableDTO> freeTables = tablesByRestaurant.get(restaurantId)
+                    .stream()
+                    .filter(table -> !booked.contains(table.getId()))
+                    .toList();
+
+            if (freeTables.isEmpty()) {
+                continue;
+            }
+
+            results.add(RestaurantAvailability.builder()
+                    .restaurantId(restaurantId)
+                    .restaurantName(restaurantsById.get(restaurantId).getName())
+                    .freeTables(freeTables.size())
+                    .bestFitCapacity(freeTables.get(0).getCapacity())
+                    .availableTables(freeTables)
+                    .build());
+        }
+
+        results.sort(RANKING);
+        return results;
+    }
+}
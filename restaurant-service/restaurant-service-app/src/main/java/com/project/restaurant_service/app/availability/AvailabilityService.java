@@ -1,25 +1,27 @@
 package com.project.restaurant_service.app.availability;
 
-import com.project.reservation_service.api.dto.ReservationDTO;
-import com.project.reservation_service.api.dto.requests.SearchReservationsRequest;
-import com.project.reservation_service.client.ReservationServiceClient;
 import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.response.AvailabilityGridResponse;
 import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
+import com.project.restaurant_service.api.dto.response.SlotAvailability;
 import com.project.restaurant_service.api.exception.RestaurantNotFoundException;
-import com.project.restaurant_service.app.restaurant.Restaurant;
 import com.project.restaurant_service.app.restaurant.RestaurantRepository;
-import com.project.restaurant_service.app.table.TableEntity;
-import com.project.restaurant_service.app.table.TableMapper;
-import com.project.restaurant_service.app.table.TableRepository;
+import com.project.restaurant_service.app.table.TableCatalog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,18 +29,58 @@ import java.util.stream.Collectors;
 public class AvailabilityService {
 
     private final RestaurantRepository restaurantRepository;
-    private final TableRepository tableRepository;
-    private final TableMapper tableMapper;
-    private final ReservationServiceClient reservationServiceClient;
+    private final TableCatalog tableCatalog;
+    private final OccupancyService occupancyService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Identical checks running at the same time, e.g. when the bookings of a popular restaurant open
+     */
+    private final SingleFlight<Check, AvailabilityResponse> checks = new SingleFlight<>();
+
+    @Value("${availability.grid.opening:11:00}")
+    private LocalTime opening;
+
+    @Value("${availability.grid.closing:22:45}")
+    private LocalTime closing;
+
+    @Value("${availability.grid.slot-minutes:15}")
+    private Integer slotMinutes;
+
+    @Value("${availability.check.result-ttl:0ms}")
+    private Duration checkResultTtl;
+
+    @PostConstruct
+    void registerMetrics() {
+        checks.setResultTtl(checkResultTtl);
+
+        FunctionCounter.builder("availability.check.requests", checks, SingleFlight::executed)
+                .description("Availability checks, computed or served by an identical check running at the same time")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("availability.check.requests", checks, SingleFlight::coalesced)
+                .description("Availability checks, computed or served by an identical check running at the same time")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
 
+    /**
+     * Checks the availability of a table, concurrent identical checks share a single computation and its result
+     */
     public AvailabilityResponse checkAvailability(Long restaurantId, LocalDate date, LocalTime time, Integer numberOfPeople) {
+        return checks.get(new Check(restaurantId, date, time, numberOfPeople),
+                () -> computeAvailability(restaurantId, date, time, numberOfPeople));
+    }
+
+    private AvailabilityResponse computeAvailability(Long restaurantId, LocalDate date, LocalTime time, Integer numberOfPeople) {
         log.info("Checking availability for restaurant id {} on the {} {}", restaurantId, date, time);
 
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+        // Only the closed flag of the restaurant is needed
+        boolean closed = restaurantRepository.findIsClosedById(restaurantId)
                 .orElseThrow(RestaurantNotFoundException::new);
 
         // Check if the restaurant is currently closed
-        if (restaurant.getIsClosed()) {
+        if (closed) {
             return AvailabilityResponse.builder()
                     .closed(true)
                     .available(false)
@@ -47,8 +89,8 @@ public class AvailabilityService {
                     .build();
         }
 
-        // Find suitable tables for the requested number of people
-        List<TableEntity> tables = tableRepository.findByRestaurantIdAndCapacityGreaterThanEqual(restaurantId, numberOfPeople);
+        // Find suitable tables for the requested number of people, smallest sufficient capacity first
+        List<TableDTO> tables = tableCatalog.tablesSeating(restaurantId, numberOfPeople);
 
         log.info("Found {} corresponding tables with capacity >= {}", tables.size(), numberOfPeople);
 
@@ -61,30 +103,12 @@ public class AvailabilityService {
                     .build();
         }
 
-        // Check if the corresponding tables are already booked by calling reservation microservice
-        List<ReservationDTO> reservations;
-        try {
-            SearchReservationsRequest request = SearchReservationsRequest.builder()
-                    .restaurantId(restaurantId)
-                    .date(date)
-                    .time(time)
-                    .build();
-
-            reservations = reservationServiceClient.getReservationsByRestaurantAndDateAndTime(request);
-            log.info("Found {} already booked reservations for this date and time!", reservations);
-        } catch (Exception e) {
-            log.error("Error calling Reservation Service Client: {}", e.getMessage());
-            reservations = List.of();
-        }
-
-        // Collects ids of already taken tables
-        Set<Long> bookedTableIds = reservations
-                .stream()
-                .map(ReservationDTO::getTableId)
-                .collect(Collectors.toSet());
+        // Collects ids of already taken tables from the in-memory occupancy index
+        Set<Long> bookedTableIds = occupancyService.bookedTables(restaurantId, date, time);
+        log.info("Found {} already booked tables for this date and time", bookedTableIds.size());
 
-        // Aggregate the available ones
-        List<TableEntity> availableTables = tables
+        // Aggregate the available ones, keeping the best fit order so that the first one wastes the fewest seats
+        List<TableDTO> availableTables = tables
                 .stream()
                 .filter(table -> !bookedTableIds.contains(table.getId()))
                 .toList();
@@ -98,16 +122,85 @@ public class AvailabilityService {
                     .build();
         }
 
-        List<TableDTO> availableTablesDTOs = availableTables
-                .stream()
-                .map(tableMapper::toDTO)
-                .toList();
-
         return AvailabilityResponse.builder()
                 .closed(false)
                 .available(true)
-                .availableTables(availableTablesDTOs)
-                .message(String.format("%d tables available", availableTablesDTOs.size()))
+                .availableTables(availableTables)
+                .message(String.format("%d tables available", availableTables.size()))
+                .build();
+    }
+
+    /**
+     * Computes the availability of every slot of a day at once.
+     * The bookings of the day are read with a single load instead of one search per slot.
+     *
+     * @param from First slot, defaults to the configured opening time
+     * @param to Last slot, defaults to the configured closing time
+     * @param slotLength Length of a slot in minutes, defaults to the configured slot length
+     * @return The free tables of every slot between from and to
+     */
+    public AvailabilityGridResponse checkAvailabilityGrid(Long restaurantId,
+                                                          LocalDate date,
+                                                          Integer numberOfPeople,
+                                                          LocalTime from,
+                                                          LocalTime to,
+                                                          Integer slotLength) {
+        log.info("Checking availability grid for restaurant id {} on the {}", restaurantId, date);
+
+        boolean closed = restaurantRepository.findIsClosedById(restaurantId)
+                .orElseThrow(RestaurantNotFoundException::new);
+
+        AvailabilityGridResponse.AvailabilityGridResponseBuilder response = AvailabilityGridResponse.builder()
+                .restaurantId(restaurantId)
+                .date(date)
+                .numberOfPeople(numberOfPeople);
+
+        if (closed) {
+            return response
+                    .closed(true)
+                    .slots(List.of())
+                    .message("Restaurant is currently closed")
+                    .build();
+        }
+
+        List<TableDTO> tables = tableCatalog.tablesSeating(restaurantId, numberOfPeople);
+        Map<LocalTime, Set<Long>> bookedByTime = tables.isEmpty()
+                ? Map.of()
+                : occupancyService.bookedTablesByTime(restaurantId, date);
+
+        LocalTime first = from != null ? from : opening;
+        LocalTime last = to != null ? to : closing;
+        int step = slotLength != null ? slotLength : slotMinutes;
+
+        List<SlotAvailability> slots = new ArrayList<>();
+        // Iterate on minutes of the day so that a grid ending close to midnight does not wrap around
+        for (int minute = first.toSecondOfDay() / 60; minute <= last.toSecondOfDay() / 60; minute += step) {
+            LocalTime time = LocalTime.ofSecondOfDay(minute * 60L);
+            Set<Long> booked = bookedByTime.getOrDefault(time, Set.of());
+
+            List<Long> freeTableIds = tables
+                    .stream()
+                    .map(TableDTO::getId)
+                    .filter(tableId -> !booked.contains(tableId))
+                    .toList();
+
+            slots.add(SlotAvailability.builder()
+                    .time(time)
+                    .available(!freeTableIds.isEmpty())
+                    .freeTables(freeTableIds.size())
+                    .freeTableIds(freeTableIds)
+                    .build());
+        }
+
+        long availableSlots = slots.stream().filter(SlotAvailability::getAvailable).count();
+
+        return response
+                .closed(false)
+                .slots(slots)
+                .message(String.format("%d of %d slots available for %d people", availableSlots, slots.size(), numberOfPeople))
                 .build();
     }
+
+    private record Check(Long restaurantId, LocalDate date, LocalTime time, Integer numberOfPeople) {
+    }
 }
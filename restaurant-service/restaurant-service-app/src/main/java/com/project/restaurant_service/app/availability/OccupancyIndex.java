@@ -0,0 +1,181 @@
+package com.project.restaurant_service.app.availability;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of booked tables, organised per restaurant, date and time slot.
+ * Every slot holds a bitmap where bit {@code n} is set when the table with ordinal {@code n} is booked,
+ * ordinals being handed out per restaurant the first time a table id is seen.
+ * Evicting days renumbers the tables still booked and frees the ordinals of the others,
+ * a restaurant left without any day is dropped altogether.
+ * The index is maintained by the reservation projection, a day it knows nothing about has no booking.
+ */
+@Component
+public class OccupancyIndex {
+
+    private final ConcurrentMap<Long, RestaurantOccupancy> restaurants = new ConcurrentHashMap<>();
+
+    public void book(Long restaurantId, Long tableId, LocalDate date, LocalTime time) {
+        // Inside compute so that an eviction cannot drop the restaurant between its lookup and the booking
+        restaurants.compute(restaurantId, (id, occupancy) -> {
+            RestaurantOccupancy booked = occupancy == null ? new RestaurantOccupancy() : occupancy;
+            booked.set(tableId, date, time, true);
+            return booked;
+        });
+    }
+
+    public void release(Long restaurantId, Long tableId, LocalDate date, LocalTime time) {
+        restaurants.computeIfPresent(restaurantId, (id, occupancy) -> {
+            occupancy.set(tableId, date, time, false);
+            return occupancy;
+        });
+    }
+
+    public Set<Long> bookedTables(Long restaurantId, LocalDate date, LocalTime time) {
+        RestaurantOccupancy occupancy = restaurants.get(restaurantId);
+        return occupancy == null ? Set.of() : occupancy.bookedTables(date, time);
+    }
+
+    /**
+     * @return The booked table ids of every slot of the day that holds at least one booking
+     */
+    public Map<LocalTime, Set<Long>> bookedTablesByTime(Long restaurantId, LocalDate date) {
+        RestaurantOccupancy occupancy = restaurants.get(restaurantId);
+        return occupancy == null ? Map.of() : occupancy.bookedTablesByTime(date);
+    }
+
+    /**
+     * Drops every day strictly before the given date, past slots are never queried again
+     */
+    public void evictBefore(LocalDate date) {
+        restaurants.keySet().forEach(restaurantId -> restaurants.computeIfPresent(restaurantId,
+                (id, occupancy) -> occupancy.evictBefore(date) ? occupancy : null));
+    }
+
+    /**
+     * Drops every booking of a restaurant on a day, before it is booked again from a fresh snapshot
+     */
+    public void clearDay(Long restaurantId, LocalDate date) {
+        restaurants.computeIfPresent(restaurantId, (id, occupancy) -> occupancy.clearDay(date) ? occupancy : null);
+    }
+
+    public void clear() {
+        restaurants.clear();
+    }
+
+    private static final class RestaurantOccupancy {
+
+        private Map<Long, Integer> ordinals = new HashMap<>();
+        private List<Long> tableIds = new ArrayList<>();
+        private final Map<LocalDate, Map<LocalTime, BitSet>> days = new HashMap<>();
+
+        synchronized void set(Long tableId, LocalDate date, LocalTime time, boolean booked) {
+            if (booked) {
+                days.computeIfAbsent(date, d -> new HashMap<>())
+                        .computeIfAbsent(time, t -> new BitSet())
+                        .set(ordinal(tableId));
+                return;
+            }
+
+            Map<LocalTime, BitSet> day = days.get(date);
+            BitSet slot = day == null ? null : day.get(time);
+            Integer ordinal = ordinals.get(tableId);
+            if (slot != null && ordinal != null) {
+                slot.clear(ordinal);
+                if (slot.isEmpty()) {
+                    day.remove(time);
+                }
+            }
+        }
+
+        synchronized Set<Long> bookedTables(LocalDate date, LocalTime time) {
+            Map<LocalTime, BitSet> day = days.get(date);
+            if (day == null) {
+                return Set.of();
+            }
+            return toTableIds(day.get(time));
+        }
+
+        synchronized Map<LocalTime, Set<Long>> bookedTablesByTime(LocalDate date) {
+            Map<LocalTime, BitSet> day = days.get(date);
+            if (day == null) {
+                return Map.of();
+            }
+
+            Map<LocalTime, Set<Long>> result = new TreeMap<>();
+            day.forEach((time, slot) -> result.put(time, toTableIds(slot)));
+            return result;
+        }
+
+        /**
+         * @return Whether any day is left
+         */
+        synchronized boolean evictBefore(LocalDate date) {
+            days.keySet().removeIf(day -> day.isBefore(date));
+            return compact();
+        }
+
+        /**
+         * @return Whether any day is left
+         */
+        synchronized boolean clearDay(LocalDate date) {
+            days.remove(date);
+            return compact();
+        }
+
+        /**
+         * Renumbers the tables still booked on a remaining day from zero, in their current order,
+         * so that ordinals and bitmaps do not keep growing with every table ever booked
+         */
+        private boolean compact() {
+            days.values().removeIf(Map::isEmpty);
+
+            BitSet used = new BitSet();
+            days.values().forEach(day -> day.values().forEach(used::or));
+            if (used.cardinality() == tableIds.size()) {
+                return !days.isEmpty();
+            }
+
+            int[] renumbered = new int[used.length()];
+            Map<Long, Integer> compactedOrdinals = new HashMap<>();
+            List<Long> compactedTableIds = new ArrayList<>(used.cardinality());
+            used.stream().forEach(ordinal -> {
+                renumbered[ordinal] = compactedTableIds.size();
+                compactedOrdinals.put(tableIds.get(ordinal), compactedTableIds.size());
+                compactedTableIds.add(tableIds.get(ordinal));
+            });
+
+            days.values().forEach(day -> day.replaceAll((time, slot) -> {
+                BitSet compacted = new BitSet(compactedTableIds.size());
+                slot.stream().forEach(ordinal -> compacted.set(renumbered[ordinal]));
+                return compacted;
+            }));
+            ordinals = compactedOrdinals;
+            tableIds = compactedTableIds;
+            return !days.isEmpty();
+        }
+
+        private int ordinal(Long tableId) {
+            return ordinals.computeIfAbsent(tableId, id -> {
+                tableIds.add(id);
+                return tableIds.size() - 1;
+            });
+        }
+
+        private Set<Long> toTableIds(BitSet slot) {
+            if (slot == null || slot.isEmpty()) {
+                return Set.of();
+            }
+
+            Set<Long> booked = new HashSet<>(slot.cardinality() * 2);
+            slot.stream().forEach(ordinal -> booked.add(tableIds.get(ordinal)));
+            return booked;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.project.restaurant_service.app.availability;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.requests.SearchReservationsRequest;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.client.ReservationServiceClient;
+import com.project.restaurant_service.api.dto.response.OccupancyDiscrepancy;
+import com.project.restaurant_service.api.dto.response.OccupancyVerificationResponse;
+import com.project.restaurant_service.api.exception.ProjectionNotReadyException;
+import com.project.restaurant_service.app.projection.ProjectionService;
+import com.project.restaurant_service.app.projection.ReservationProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Answers occupancy questions from the {@link OccupancyIndex}, which the local reservation projection keeps current.
+ * Availability never calls reservation-service, it is refused until the projection completed its first resync.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupancyService {
+
+    private final OccupancyIndex index;
+    private final ReservationProjection projection;
+    private final ProjectionService projectionService;
+    private final ReservationServiceClient reservationServiceClient;
+
+    public Set<Long> bookedTables(Long restaurantId, LocalDate date, LocalTime time) {
+        ensureReady();
+        return index.bookedTables(restaurantId, date, time);
+    }
+
+    /**
+     * Same as {@link #bookedTables(Long, LocalDate, LocalTime)} for several restaurants
+     *
+     * @return The booked table ids keyed by restaurant id
+     */
+    public Map<Long, Set<Long>> bookedTables(Collection<Long> restaurantIds, LocalDate date, LocalTime time) {
+        ensureReady();
+
+        Map<Long, Set<Long>> booked = new HashMap<>();
+        restaurantIds.forEach(restaurantId -> booked.put(restaurantId, index.bookedTables(restaurantId, date, time)));
+        return booked;
+    }
+
+    /**
+     * @return The booked table ids of every slot of the day
+     */
+    public Map<LocalTime, Set<Long>> bookedTablesByTime(Long restaurantId, LocalDate date) {
+        ensureReady();
+        return index.bookedTablesByTime(restaurantId, date);
+    }
+
+    /**
+     * Compares the index against the reservations held by reservation-service for a day
+     *
+     * @param rebuild Whether the day should be resynced from reservation-service afterwards
+     * @return The verification report listing every slot where both sides disagree
+     */
+    public OccupancyVerificationResponse verify(Long restaurantId, LocalDate date, boolean rebuild) {
+        Map<LocalTime, Set<Long>> reserved = fetchReservedTables(restaurantId, date);
+        Map<LocalTime, Set<Long>> indexed = index.bookedTablesByTime(restaurantId, date);
+
+        Set<LocalTime> times = new TreeSet<>(reserved.keySet());
+        times.addAll(indexed.keySet());
+
+        List<OccupancyDiscrepancy> discrepancies = new ArrayList<>();
+        for (LocalTime time : times) {
+            Set<Long> reservedTables = reserved.getOrDefault(time, Set.of());
+            Set<Long> indexedTables = indexed.getOrDefault(time, Set.of());
+
+            Set<Long> tableIds = new TreeSet<>(reservedTables);
+            tableIds.addAll(indexedTables);
+
+            tableIds.stream()
+                    .filter(tableId -> reservedTables.contains(tableId) != indexedTables.contains(tableId))
+                    .map(tableId -> OccupancyDiscrepancy.builder()
+                            .time(time)
+                            .tableId(tableId)
+                            .indexed(indexedTables.contains(tableId))
+                            .reserved(reservedTables.contains(tableId))
+                            .build())
+                    .forEach(discrepancies::add);
+        }
+
+        if (!discrepancies.isEmpty()) {
+            log.warn("Occupancy index of restaurant {} on the {} has {} discrepancies", restaurantId, date, discrepancies.size());
+        }
+
+        if (rebuild) {
+            projectionService.resync(restaurantId, date);
+        }
+
+        return OccupancyVerificationResponse.builder()
+                .restaurantId(restaurantId)
+                .date(date)
+                .consistent(discrepancies.isEmpty())
+                .rebuilt(rebuild)
+                .indexedBookings(indexed.values().stream().mapToInt(Set::size).sum())
+                .reservedBookings(reserved.values().stream().mapToInt(Set::size).sum())
+                .discrepancies(discrepancies)
+                .build();
+    }
+
+    private void ensureReady() {
+        if (!projection.isReady()) {
+            throw new ProjectionNotReadyException();
+        }
+    }
+
+    private Map<LocalTime, Set<Long>> fetchReservedTables(Long restaurantId, LocalDate date) {
+        SearchReservationsRequest request = SearchReservationsRequest.builder()
+                .restaurantId(restaurantId)
+                .date(date)
+                .build();
+
+        Collection<ReservationDTO> reservations = reservationServiceClient
+                .getReservationsByRestaurantAndDateAndTime(request)
+                .getContent();
+
+        log.info("Loaded {} reservations of restaurant {} on the {}", reservations.size(), restaurantId, date);
+
+        return reservations
+                .stream()
+                .filter(OccupancyService::holdsTable)
+                .collect(Collectors.groupingBy(ReservationDTO::getTime, Collectors.mapping(ReservationDTO::getTableId, Collectors.toSet())));
+    }
+
+    private static boolean holdsTable(ReservationDTO reservation) {
+        // Unknown statuses are treated as booked, it is safer to hide a free table than to offer a taken one
+        if (reservation.getStatus() == null) {
+            return true;
+        }
+        try {
+            return ReservationStatus.valueOf(reservation.getStatus()).holdsTable();
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.restaurant_service.app.availability;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shares one computation between the callers asking for the same key at the same time.
+ * The first caller computes the value in its own thread, the ones arriving meanwhile wait for its result,
+ * or its exception, instead of computing it again.
+ * A result can be kept a little longer for the callers arriving just after, failures never are.
+ *
+ * @param <K> Key of a computation, with value equality
+ * @param <V> Computed value, shared by the callers, so it must not be modified
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private volatile Duration resultTtl = Duration.ZERO;
+
+    V get(K key, Supplier<V> computation) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+
+        call.complete(value);
+        forget(key, call);
+        return value;
+    }
+
+    /**
+     * @param resultTtl How long a result is given to the callers arriving after it was computed, zero for none
+     */
+    void setResultTtl(Duration resultTtl) {
+        this.resultTtl = resultTtl;
+    }
+
+    /**
+     * @return Computations run
+     */
+    long executed() {
+        return executed.sum();
+    }
+
+    /**
+     * @return Callers served by the computation of another one
+     */
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    private void forget(K key, CompletableFuture<V> call) {
+        Duration ttl = resultTtl;
+        if (ttl.isZero() || ttl.isNegative()) {
+            calls.remove(key, call);
+        } else {
+            CompletableFuture.delayedExecutor(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> calls.remove(key, call));
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // The waiting callers get the exception of the computation as it was thrown
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
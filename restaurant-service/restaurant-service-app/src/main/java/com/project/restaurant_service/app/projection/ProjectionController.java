@@ -0,0 +1,76 @@
+package com.project.restaurant_service.app.projection;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.restaurant_service.api.dto.response.OccupancyVerificationResponse;
+import com.project.restaurant_service.api.dto.response.ProjectionStatusResponse;
+import com.project.restaurant_service.app.availability.OccupancyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Not routed by the gateway, restricted to the other services by the {@link com.project.restaurant_service.app.InternalTokenInterceptor}
+ */
+@RestController
+@RequestMapping("/internal/projection")
+@RequiredArgsConstructor
+@Tag(name = "Reservation Projection", description = "Local copy of the reservations used by availability checks")
+public class ProjectionController {
+
+    private final ProjectionService service;
+    private final OccupancyService occupancyService;
+
+    @PostMapping("/events")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Apply reservation change events pushed by reservation-service")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Events applied, older or duplicate ones being ignored"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing internal token")
+    })
+    public ProjectionStatusResponse applyEvents(@RequestBody List<ReservationEventDTO> events) {
+        return service.apply(events);
+    }
+
+    @PostMapping("/resync")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Rebuild the projection from the reservations currently held by reservation-service")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projection resynced"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing internal token")
+    })
+    public ProjectionStatusResponse resync() {
+        return service.resync();
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get the synchronization status of the projection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projection status"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing internal token")
+    })
+    public ProjectionStatusResponse status() {
+        return service.status();
+    }
+
+    @PostMapping("/occupancy/{restaurantId}/{date}/verify")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Verify the occupancy index of a restaurant for a date against the reservations, optionally resyncing the projection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Verification report"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing internal token")
+    })
+    public OccupancyVerificationResponse verifyOccupancy(@PathVariable Long restaurantId,
+                                                         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                         @RequestParam(defaultValue = "false") boolean rebuild) {
+        return occupancyService.verify(restaurantId, date, rebuild);
+    }
+}
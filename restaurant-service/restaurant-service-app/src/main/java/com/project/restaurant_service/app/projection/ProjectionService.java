@@ -0,0 +1,143 @@
+package com.project.restaurant_service.app.projection;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.client.ReservationServiceClient;
+import com.project.restaurant_service.api.dto.response.ProjectionStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Feeds the {@link ReservationProjection}: applies the events pushed by reservation-service
+ * and periodically resyncs from its snapshot endpoint to catch up with any missed event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectionService {
+
+    private final ReservationProjection projection;
+    private final ReservationServiceClient reservationServiceClient;
+
+    @Value("${projection.resync.interval:15m}")
+    private Duration resyncInterval;
+
+    @Value("${projection.resync.page-size:500}")
+    private Integer pageSize;
+
+    public ProjectionStatusResponse apply(Collection<ReservationEventDTO> events) {
+        int applied = 0;
+        for (ReservationEventDTO event : events) {
+            if (projection.apply(event)) {
+                applied++;
+            }
+        }
+
+        log.debug("Applied {} of {} reservation events", applied, events.size());
+        return status(applied);
+    }
+
+    /**
+     * Rebuilds the projection from the reservations currently holding a table, today onwards
+     */
+    public synchronized ProjectionStatusResponse resync() {
+        projection.beginResync();
+        try {
+            List<ReservationEventDTO> snapshot = new ArrayList<>();
+            LocalDate from = LocalDate.now();
+            long after = 0;
+
+            List<ReservationEventDTO> page;
+            do {
+                page = List.copyOf(reservationServiceClient.getActiveReservationEvents(from, after, pageSize).getContent());
+                snapshot.addAll(page);
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getReservationId();
+                }
+            } while (page.size() == pageSize);
+
+            projection.completeResync(snapshot);
+            log.info("Reservation projection resynced with {} active reservations", snapshot.size());
+        } catch (RuntimeException e) {
+            projection.abortResync();
+            throw e;
+        }
+
+        return status(null);
+    }
+
+    /**
+     * Rebuilds one day of a restaurant from the reservations holding a table on it, the rest of the projection is kept
+     */
+    public synchronized ProjectionStatusResponse resync(Long restaurantId, LocalDate date) {
+        projection.beginResync();
+        try {
+            List<ReservationEventDTO> snapshot = List.copyOf(
+                    reservationServiceClient.getActiveReservationEventsOfDay(restaurantId, date).getContent());
+
+            projection.completeResync(restaurantId, date, snapshot);
+            log.info("Reservation projection of restaurant {} on the {} resynced with {} active reservations",
+                    restaurantId, date, snapshot.size());
+        } catch (RuntimeException e) {
+            projection.abortResync();
+            throw e;
+        }
+
+        return status(null);
+    }
+
+    /**
+     * Resyncs right after startup, then every resync interval.
+     * Until a first resync succeeds availability is refused rather than answered from an empty projection.
+     */
+    @Scheduled(fixedDelayString = "${projection.resync.check-interval:10s}")
+    public void resyncWhenDue() {
+        boolean due = projection.lastSyncedAt()
+                .map(lastSyncedAt -> lastSyncedAt.plus(resyncInterval).isBefore(Instant.now()))
+                .orElse(true);
+
+        if (!due) {
+            return;
+        }
+
+        try {
+            resync();
+        } catch (Exception e) {
+            log.error("Error calling Reservation Service Client: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Past days are never checked again, drop them once a day
+     */
+    @Scheduled(cron = "${projection.eviction-cron:0 0 3 * * *}")
+    public void evictPastDays() {
+        projection.evictBefore(LocalDate.now());
+    }
+
+    public ProjectionStatusResponse status() {
+        return status(null);
+    }
+
+    private ProjectionStatusResponse status(Integer appliedEvents) {
+        return ProjectionStatusResponse.builder()
+                .ready(projection.isReady())
+                .lastSyncedAt(projection.lastSyncedAt()
+                        .map(instant -> LocalDateTime.ofInstant(instant, ZoneId.systemDefault()))
+                        .orElse(null))
+                .reservations(projection.size())
+                .appliedEvents(appliedEvents)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.project.restaurant_service.app.projection;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.restaurant_service.app.availability.OccupancyIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Local copy of the reservations of reservation-service, limited to what availability needs.
+ * It is fed by reservation events and rebuilt from a snapshot on resync, and keeps the {@link OccupancyIndex} in step.
+ * Every reservation carries the version of the last event applied to it, older or duplicate events are ignored.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationProjection {
+
+    private final OccupancyIndex index;
+
+    private final Map<Long, ProjectedReservation> reservations = new HashMap<>();
+
+    /**
+     * Events received while a resync is running, replayed on top of its snapshot
+     */
+    private List<ReservationEventDTO> pendingDuringResync;
+
+    private volatile Instant lastSyncedAt;
+
+    /**
+     * @return Whether the event changed the projection
+     */
+    public synchronized boolean apply(ReservationEventDTO event) {
+        if (pendingDuringResync != null) {
+            pendingDuringResync.add(event);
+        }
+
+        ProjectedReservation next = ProjectedReservation.of(event);
+        ProjectedReservation current = reservations.get(next.reservationId());
+        if (current != null && current.version() >= next.version()) {
+            return false;
+        }
+
+        if (current != null && current.holdsTable()) {
+            index.release(current.restaurantId(), current.tableId(), current.date(), current.time());
+        }
+
+        reservations.put(next.reservationId(), next);
+
+        if (next.holdsTable()) {
+            index.book(next.restaurantId(), next.tableId(), next.date(), next.time());
+        }
+        return true;
+    }
+
+    public synchronized void beginResync() {
+        pendingDuringResync = new ArrayList<>();
+    }
+
+    /**
+     * Replaces the projection with the snapshot, then replays the events received since {@link #beginResync()}
+     *
+     * @param snapshot The current state of every reservation holding its table
+     */
+    public synchronized void completeResync(Collection<ReservationEventDTO> snapshot) {
+        Map<Long, ProjectedReservation> rebuilt = new HashMap<>();
+        snapshot.forEach(event -> rebuilt.put(event.getReservationId(), ProjectedReservation.of(event)));
+
+        // Released reservations are not part of the snapshot, keep them so that a late older event cannot revive them
+        reservations.values()
+                .stream()
+                .filter(reservation -> !reservation.holdsTable())
+                .forEach(reservation -> rebuilt.putIfAbsent(reservation.reservationId(), reservation));
+
+        reservations.clear();
+        reservations.putAll(rebuilt);
+
+        index.clear();
+        reservations.values()
+                .stream()
+                .filter(ProjectedReservation::holdsTable)
+                .forEach(reservation -> index.book(reservation.restaurantId(), reservation.tableId(), reservation.date(), reservation.time()));
+
+        replayPending();
+        lastSyncedAt = Instant.now();
+    }
+
+    /**
+     * Replaces one day of a restaurant with the snapshot, then replays the events received since {@link #beginResync()}.
+     * The other days and restaurants are left as they are.
+     *
+     * @param snapshot The current state of every reservation holding its table at the restaurant on that day
+     */
+    public synchronized void completeResync(Long restaurantId, LocalDate date, Collection<ReservationEventDTO> snapshot) {
+        // Reservations of the day missing from the snapshot no longer hold their table
+        reservations.values().removeIf(reservation -> reservation.holdsTable() && reservation.isOn(restaurantId, date));
+
+        snapshot.forEach(event -> {
+            ProjectedReservation next = ProjectedReservation.of(event);
+            ProjectedReservation current = reservations.put(next.reservationId(), next);
+            // Held until now on another day or at another restaurant
+            if (current != null && current.holdsTable()) {
+                index.release(current.restaurantId(), current.tableId(), current.date(), current.time());
+            }
+        });
+
+        index.clearDay(restaurantId, date);
+        reservations.values()
+                .stream()
+                .filter(reservation -> reservation.holdsTable() && reservation.isOn(restaurantId, date))
+                .forEach(reservation -> index.book(reservation.restaurantId(), reservation.tableId(), reservation.date(), reservation.time()));
+
+        replayPending();
+    }
+
+    public synchronized void abortResync() {
+        pendingDuringResync = null;
+    }
+
+    /**
+     * @return Whether at least one resync completed, before that the projection cannot be trusted
+     */
+    public boolean isReady() {
+        return lastSyncedAt != null;
+    }
+
+    public Optional<Instant> lastSyncedAt() {
+        return Optional.ofNullable(lastSyncedAt);
+    }
+
+    public synchronized int size() {
+        return reservations.size();
+    }
+
+    /**
+     * Drops every reservation strictly before the given date along with its occupancy
+     */
+    public synchronized void evictBefore(LocalDate date) {
+        reservations.values().removeIf(reservation -> reservation.date().isBefore(date));
+        index.evictBefore(date);
+    }
+
+    private void replayPending() {
+        List<ReservationEventDTO> pending = pendingDuringResync;
+        pendingDuringResync = null;
+        if (pending != null) {
+            pending.forEach(this::apply);
+        }
+    }
+
+    private record ProjectedReservation(Long reservationId,
+                                        Long restaurantId,
+                                        Long tableId,
+                                        LocalDate date,
+                                        LocalTime time,
+                                        boolean holdsTable,
+                                        long version) {
+
+        static ProjectedReservation of(ReservationEventDTO event) {
+            // Unknown statuses are treated as booked, it is safer to hide a free table than to offer a taken one
+            boolean holdsTable = event.getType() != ReservationEventType.DELETED
+                    && (event.getStatus() == null || event.getStatus().holdsTable());
+
+            return new ProjectedReservation(
+                    event.getReservationId(),
+                    event.getRestaurantId(),
+                    event.getTableId(),
+                    event.getDate(),
+                    event.getTime(),
+                    holdsTable,
+                    event.getVersion() == null ? 0 : event.getVersion()
+            );
+        }
+
+        boolean isOn(Long restaurantId, LocalDate date) {
+            return Objects.equals(this.restaurantId, restaurantId) && Objects.equals(this.date, date);
+        }
+    }
+}
@@ -2,18 +2,22 @@ package com.project.restaurant_service.app.restaurant;
 
 import com.project.restaurant_service.api.dto.RestaurantDTO;
 import com.project.restaurant_service.api.dto.requests.CreateRestaurantRequest;
+import com.project.restaurant_service.api.pagination.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -31,15 +35,27 @@ public class RestaurantController {
     @Operation(summary = "Retrieve all restaurants")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
-    public CollectionModel<EntityModel<RestaurantDTO>> getAll() {
-        List<EntityModel<RestaurantDTO>> restaurants = service.getAll().stream()
+    public CollectionModel<EntityModel<RestaurantDTO>> getAll(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size
+    ) {
+        KeysetScrollPosition position = KeysetCursor.position(after, before, "id");
+        Window<RestaurantDTO> page = service.getAll(position, KeysetCursor.pageSize(size));
+
+        List<EntityModel<RestaurantDTO>> restaurants = page.stream()
                 .map(this::toHateoasEntityModel)
                 .toList();
 
-        return CollectionModel.of(restaurants,
-                linkTo(methodOn(RestaurantController.class).getAll()).withSelfRel());
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(RestaurantController.class).getAll(after, before, size)).withSelfRel().expand());
+        KeysetCursor.addPageLinks(links, page, position,
+                (pageAfter, pageBefore) -> linkTo(methodOn(RestaurantController.class).getAll(pageAfter, pageBefore, size)));
+
+        return CollectionModel.of(restaurants, links);
     }
 
     @GetMapping("/{id}")
@@ -95,7 +111,7 @@ public class RestaurantController {
      */
     private EntityModel<RestaurantDTO> toHateoasEntityModel(RestaurantDTO restaurantDTO) {
         Link selfLink = linkTo(methodOn(RestaurantController.class).getOne(restaurantDTO.getId())).withSelfRel();
-        Link allRestaurantsLink = linkTo(methodOn(RestaurantController.class).getAll()).withRel("all-restaurants");
+        Link allRestaurantsLink = linkTo(methodOn(RestaurantController.class).getAll(null, null, null)).withRel("all-restaurants");
         return EntityModel.of(restaurantDTO, selfLink, allRestaurantsLink);
     }
 }
\ No newline at end of file
@@ -1,9 +1,31 @@
 package com.project.restaurant_service.app.restaurant;
 
+import com.project.restaurant_service.api.dto.RestaurantDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+    List<Restaurant> findByIsClosedFalse();
+    List<Restaurant> findByIdInAndIsClosedFalse(Collection<Long> ids);
+    Window<Restaurant> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
+    @Query("select new com.project.restaurant_service.api.dto.RestaurantDTO(r.id, r.name, r.address, r.phone, r.email, r.isClosed) "
+            + "from Restaurant r where r.id = :id")
+    Optional<RestaurantDTO> findDTOById(@Param("id") Long id);
 
+    /**
+     * @return Whether the restaurant is closed, empty when it does not exist
+     */
+    @Query("select r.isClosed from Restaurant r where r.id = :id")
+    Optional<Boolean> findIsClosedById(@Param("id") Long id);
 }
@@ -3,32 +3,32 @@ package com.project.restaurant_service.app.restaurant;
 import com.project.restaurant_service.api.dto.RestaurantDTO;
 import com.project.restaurant_service.api.dto.requests.CreateRestaurantRequest;
 import com.project.restaurant_service.api.exception.RestaurantNotFoundException;
+import com.project.restaurant_service.app.table.TableCatalog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class RestaurantService {
 
     private final RestaurantRepository repository;
     private final RestaurantMapper mapper;
+    private final TableCatalog tableCatalog;
 
-    @Transactional
+    @Transactional(readOnly = true)
     public RestaurantDTO getById(Long id) {
-        Restaurant entity = repository.findById(id)
+        return repository.findDTOById(id)
                 .orElseThrow(RestaurantNotFoundException::new);
-        return mapper.toDTO(entity);
     }
 
-    @Transactional
-    public List<RestaurantDTO> getAll() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public Window<RestaurantDTO> getAll(ScrollPosition position, int size) {
+        return repository.findAllByOrderByIdAsc(position, Limit.of(size))
+                .map(mapper::toDTO);
     }
 
     @Transactional
@@ -53,5 +53,7 @@ public class RestaurantService {
             throw new RestaurantNotFoundException();
         }
         repository.deleteById(id);
+        // Tables are removed along with their restaurant
+        tableCatalog.removeRestaurant(id);
     }
 }
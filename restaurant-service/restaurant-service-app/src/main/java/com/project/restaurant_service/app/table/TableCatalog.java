@@ -0,0 +1,192 @@
+package com.project.restaurant_service.app.table;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the tables of every restaurant, indexed by capacity.
+ * Layouts change rarely, so availability checks read tables from here instead of querying the database.
+ * Every restaurant holds an immutable snapshot that is replaced as a whole on change, readers never lock.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TableCatalog {
+
+    private static final Comparator<TableDTO> BEST_FIT = Comparator
+            .comparing(TableDTO::getCapacity)
+            .thenComparing(TableDTO::getId);
+
+    private final TableRepository repository;
+
+    private final ConcurrentMap<Long, RestaurantTables> restaurants = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> restaurantByTable = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * @return The tables of the restaurant seating at least the given number of people, smallest sufficient capacity first
+     */
+    public List<TableDTO> tablesSeating(Long restaurantId, Integer numberOfPeople) {
+        ensureLoaded();
+        RestaurantTables tables = restaurants.get(restaurantId);
+        return tables == null ? List.of() : tables.seating(numberOfPeople);
+    }
+
+    /**
+     * Same as {@link #tablesSeating(Long, Integer)} for several restaurants
+     *
+     * @return The suitable tables keyed by restaurant id, restaurants without any suitable table being left out
+     */
+    public Map<Long, List<TableDTO>> tablesSeating(Collection<Long> restaurantIds, Integer numberOfPeople) {
+        Map<Long, List<TableDTO>> result = new TreeMap<>();
+        for (Long restaurantId : restaurantIds) {
+            List<TableDTO> tables = tablesSeating(restaurantId, numberOfPeople);
+            if (!tables.isEmpty()) {
+                result.put(restaurantId, tables);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds or replaces a table once the current transaction commits
+     */
+    public void put(TableDTO table) {
+        afterCommit(() -> {
+            Long previousRestaurantId = restaurantByTable.put(table.getId(), table.getRestaurantId());
+            if (previousRestaurantId != null && !previousRestaurantId.equals(table.getRestaurantId())) {
+                restaurants.computeIfPresent(previousRestaurantId, (id, tables) -> tables.without(table.getId()));
+            }
+            restaurants.compute(table.getRestaurantId(), (id, tables) ->
+                    (tables == null ? RestaurantTables.EMPTY : tables).with(table));
+        });
+    }
+
+    /**
+     * Removes a table once the current transaction commits
+     */
+    public void remove(Long tableId) {
+        afterCommit(() -> {
+            Long restaurantId = restaurantByTable.remove(tableId);
+            if (restaurantId != null) {
+                restaurants.computeIfPresent(restaurantId, (id, tables) -> tables.without(tableId));
+            }
+        });
+    }
+
+    /**
+     * Removes every table of a restaurant once the current transaction commits
+     */
+    public void removeRestaurant(Long restaurantId) {
+        afterCommit(() -> {
+            RestaurantTables tables = restaurants.remove(restaurantId);
+            if (tables != null) {
+                tables.byCapacity.values().forEach(list -> list.forEach(table -> restaurantByTable.remove(table.getId())));
+            }
+        });
+    }
+
+    /**
+     * Replaces the whole catalog with the content of the database.
+     * Also runs periodically so that changes made by other instances end up being picked up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tables.catalog.refresh-interval:5m}", initialDelayString = "${tables.catalog.refresh-interval:5m}")
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        Map<Long, List<TableDTO>> tablesByRestaurant = repository.findAllDTOs()
+                .stream()
+                .collect(Collectors.groupingBy(TableDTO::getRestaurantId));
+
+        Map<Long, Long> tableOwners = new HashMap<>();
+        tablesByRestaurant.forEach((restaurantId, tables) -> {
+            restaurants.put(restaurantId, RestaurantTables.of(tables));
+            tables.forEach(table -> tableOwners.put(table.getId(), restaurantId));
+        });
+        restaurants.keySet().retainAll(tablesByRestaurant.keySet());
+        restaurantByTable.putAll(tableOwners);
+        restaurantByTable.keySet().retainAll(tableOwners.keySet());
+
+        loaded = true;
+        log.info("Loaded {} tables of {} restaurants in the table catalog", tableOwners.size(), tablesByRestaurant.size());
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        // A rolled back change must never become visible to availability checks
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Tables of a restaurant grouped by capacity, each group sorted by id
+     */
+    private record RestaurantTables(NavigableMap<Integer, List<TableDTO>> byCapacity) {
+
+        static final RestaurantTables EMPTY = new RestaurantTables(new TreeMap<>());
+
+        static RestaurantTables of(Collection<TableDTO> tables) {
+            NavigableMap<Integer, List<TableDTO>> byCapacity = tables
+                    .stream()
+                    .sorted(BEST_FIT)
+                    .collect(Collectors.groupingBy(TableDTO::getCapacity, TreeMap::new, Collectors.toUnmodifiableList()));
+            return new RestaurantTables(byCapacity);
+        }
+
+        List<TableDTO> seating(Integer numberOfPeople) {
+            List<TableDTO> result = new ArrayList<>();
+            byCapacity.tailMap(numberOfPeople, true).values().forEach(result::addAll);
+            return result;
+        }
+
+        RestaurantTables with(TableDTO table) {
+            List<TableDTO> tables = all();
+            tables.removeIf(existing -> existing.getId().equals(table.getId()));
+            tables.add(table);
+            return of(tables);
+        }
+
+        RestaurantTables without(Long tableId) {
+            List<TableDTO> tables = all();
+            tables.removeIf(existing -> existing.getId().equals(tableId));
+            return of(tables);
+        }
+
+        private List<TableDTO> all() {
+            List<TableDTO> tables = new ArrayList<>();
+            byCapacity.values().forEach(tables::addAll);
+            return tables;
+        }
+    }
+}
@@ -10,7 +10,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,8 +36,9 @@ public class TableController {
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token")
     })
     public CollectionModel<EntityModel<TableDTO>> getAllForRestaurant(@PathVariable Long restaurantId) {
+        TableLinks links = TableLinks.fromCurrentRequest();
         List<EntityModel<TableDTO>> tables = service.getAllForRestaurant(restaurantId).stream()
-                .map(this::toHateoasEntityModel)
+                .map(table -> toHateoasEntityModel(table, links))
                 .toList();
 
         return CollectionModel.of(tables,
@@ -110,8 +110,10 @@ public class TableController {
      * @return The entity model containing the DTO with the links
      */
     private EntityModel<TableDTO> toHateoasEntityModel(TableDTO tableDTO) {
-        Link selfLink = linkTo(methodOn(TableController.class).getOne(tableDTO.getId())).withSelfRel();
-        Link allTablesLink = linkTo(methodOn(TableController.class).getAllForRestaurant(tableDTO.getRestaurantId())).withRel("all-tables-for-a-restaurant");
-        return EntityModel.of(tableDTO, selfLink, allTablesLink);
+        return toHateoasEntityModel(tableDTO, TableLinks.fromCurrentRequest());
+    }
+
+    private EntityModel<TableDTO> toHateoasEntityModel(TableDTO tableDTO, TableLinks links) {
+        return EntityModel.of(tableDTO, links.of(tableDTO));
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.project.restaurant_service.app.table;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Builds the links of a table from templates of the {@link TableController} mappings.
+ * The base URI is resolved once per response instead of proxying the controller for every link,
+ * the hrefs are the ones {@code linkTo(methodOn(...))} builds.
+ */
+final class TableLinks {
+
+    private final String baseUri;
+
+    private TableLinks(String baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * @return Links resolved against the request being handled
+     */
+    static TableLinks fromCurrentRequest() {
+        return new TableLinks(linkTo(TableController.class).toUri().toString());
+    }
+
+    List<Link> of(TableDTO table) {
+        return List.of(
+                Link.of(baseUri + "/" + table.getId(), IanaLinkRelations.SELF),
+                Link.of(baseUri + "/restaurant/" + table.getRestaurantId(), "all-tables-for-a-restaurant"));
+    }
+}
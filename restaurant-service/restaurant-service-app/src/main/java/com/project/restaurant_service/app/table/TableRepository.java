@@ -1,12 +1,31 @@
 package com.project.restaurant_service.app.table;
 
+import com.project.restaurant_service.api.dto.TableDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TableRepository extends JpaRepository<TableEntity, Long> {
-    List<TableEntity> findByRestaurantId(Long restaurantId);
     List<TableEntity> findByRestaurantIdAndCapacityGreaterThanEqual(Long restaurantId, Integer numberOfPeople);
+
+    /**
+     * Selects tables straight into their DTO, reading the restaurant id from the foreign key without joining
+     */
+    String SELECT_DTO = "select new com.project.restaurant_service.api.dto.TableDTO("
+            + "t.id, t.tableNumber, t.capacity, t.restaurant.id) "
+            + "from TableEntity t ";
+
+    @Query(SELECT_DTO + "where t.id = :id")
+    Optional<TableDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "where t.restaurant.id = :restaurantId")
+    List<TableDTO> findDTOsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query(SELECT_DTO)
+    List<TableDTO> findAllDTOs();
 }
@@ -19,23 +19,21 @@ public class TableService {
     private final TableRepository repository;
     private final RestaurantRepository restaurantRepository;
     private final TableMapper mapper;
+    private final TableCatalog catalog;
 
-    @Transactional
+    @Transactional(readOnly = true)
     public TableDTO getById(Long id) {
-        TableEntity entity = repository.findById(id)
+        return repository.findDTOById(id)
                 .orElseThrow(TableNotFoundException::new);
-        return mapper.toDTO(entity);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<TableDTO> getAllForRestaurant(Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(RestaurantNotFoundException::new);
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new RestaurantNotFoundException();
+        }
 
-        return repository.findByRestaurantId(restaurantId)
-                .stream()
-                .map(mapper::toDTO)
-                .toList();
+        return repository.findDTOsByRestaurantId(restaurantId);
     }
 
     @Transactional
@@ -45,7 +43,9 @@ public class TableService {
 
         TableEntity entity = mapper.toEntity(request, restaurant);
         TableEntity saved = repository.save(entity);
-        return mapper.toDTO(saved);
+        TableDTO dto = mapper.toDTO(saved);
+        catalog.put(dto);
+        return dto;
     }
 
     @Transactional
@@ -59,7 +59,9 @@ public class TableService {
 
         mapper.updateEntity(current, request);
         TableEntity updated = repository.save(current);
-        return mapper.toDTO(updated);
+        TableDTO dto = mapper.toDTO(updated);
+        catalog.put(dto);
+        return dto;
     }
 
     @Transactional
@@ -68,5 +70,6 @@ public class TableService {
             throw new TableNotFoundException();
         }
         repository.deleteById(id);
+        catalog.remove(id);
     }
 }
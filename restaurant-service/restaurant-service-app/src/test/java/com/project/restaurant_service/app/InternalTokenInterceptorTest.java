@@ -0,0 +1,52 @@
+package com.project.restaurant_service.app;
+
+import com.project.restaurant_service.api.exception.InvalidInternalTokenException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalTokenInterceptorTest {
+
+    @Test
+    void shouldLetRequestsWithTheTokenThrough() {
+        InternalTokenInterceptor interceptor = interceptor("secret");
+
+        assertTrue(interceptor.preHandle(request("secret"), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void shouldRejectRequestsWithoutTheToken() {
+        InternalTokenInterceptor interceptor = interceptor("secret");
+
+        assertThrows(InvalidInternalTokenException.class,
+                () -> interceptor.preHandle(request(null), new MockHttpServletResponse(), new Object()));
+        assertThrows(InvalidInternalTokenException.class,
+                () -> interceptor.preHandle(request("guess"), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void shouldRejectEverythingWithoutConfiguredToken() {
+        InternalTokenInterceptor interceptor = interceptor("");
+
+        assertThrows(InvalidInternalTokenException.class,
+                () -> interceptor.preHandle(request(""), new MockHttpServletResponse(), new Object()));
+    }
+
+    private static InternalTokenInterceptor interceptor(String token) {
+        InternalTokenInterceptor interceptor = new InternalTokenInterceptor();
+        ReflectionTestUtils.setField(interceptor, "token", token);
+        interceptor.init();
+        return interceptor;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/internal/projection/events");
+        if (token != null) {
+            request.addHeader(InternalTokenInterceptor.INTERNAL_TOKEN_HEADER, token);
+        }
+        return request;
+    }
+}
@@ -2,8 +2,10 @@ package com.project.restaurant_service.app.availability;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.restaurant_service.api.dto.requests.CheckAvailabilityRequest;
+import com.project.restaurant_service.app.projection.ProjectionService;
 import com.project.restaurant_service.app.restaurant.Restaurant;
 import com.project.restaurant_service.app.restaurant.RestaurantRepository;
+import com.project.restaurant_service.app.table.TableCatalog;
 import com.project.restaurant_service.app.table.TableEntity;
 import com.project.restaurant_service.app.table.TableRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -115,6 +117,12 @@ class AvailabilityControllerIntegrationContainerTest {
     @Autowired
     private TableRepository tableRepository;
 
+    @Autowired
+    private TableCatalog tableCatalog;
+
+    @Autowired
+    private ProjectionService projectionService;
+
     private Restaurant testRestaurant;
 
     @BeforeEach
@@ -137,6 +145,10 @@ class AvailabilityControllerIntegrationContainerTest {
                 .capacity(4)
                 .build();
         tableRepository.save(table);
+        // Tables are saved behind the catalog's back, reload it to see them
+        tableCatalog.reload();
+        // Availability is refused until the reservation projection synced once
+        projectionService.resync();
     }
 
     @Test
@@ -0,0 +1,140 @@
+package com.project.restaurant_service.app.availability;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.requests.AvailabilitySearchRequest;
+import com.project.restaurant_service.api.dto.response.RestaurantAvailability;
+import com.project.restaurant_service.app.restaurant.Restaurant;
+import com.project.restaurant_service.app.restaurant.RestaurantRepository;
+import com.project.restaurant_service.app.table.TableCatalog;
+import com.project.restaurant_service.app.table.TableRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 15);
+    private static final LocalTime TIME = LocalTime.of(20, 0);
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private TableRepository tableRepository;
+
+    @Mock
+    private OccupancyService occupancyService;
+
+    private AvailabilitySearchService searchService;
+
+    private Restaurant restaurant1;
+    private Restaurant restaurant2;
+    private Restaurant restaurant3;
+
+    @BeforeEach
+    void setUp() {
+        TableCatalog tableCatalog = new TableCatalog(tableRepository);
+        searchService = new AvailabilitySearchService(restaurantRepository, tableCatalog, occupancyService);
+        ReflectionTestUtils.setField(searchService, "shardSize", 2);
+        ReflectionTestUtils.setField(searchService, "parallelism", 2);
+        searchService.start();
+
+        restaurant1 = Restaurant.builder().id(1L).name("Large Tables").isClosed(false).build();
+        restaurant2 = Restaurant.builder().id(2L).name("Best Fit").isClosed(false).build();
+        restaurant3 = Restaurant.builder().id(3L).name("Fully Booked").isClosed(false).build();
+
+        lenient().when(restaurantRepository.findByIsClosedFalse()).thenReturn(List.of(restaurant1, restaurant2, restaurant3));
+        lenient().when(tableRepository.findAllDTOs())
+                .thenReturn(List.of(
+                        table(11L, restaurant1, 8),
+                        table(21L, restaurant2, 6),
+                        table(22L, restaurant2, 4),
+                        table(31L, restaurant3, 4)
+                ));
+        lenient().when(occupancyService.bookedTables(anyCollection(), eq(DATE), eq(TIME))).thenAnswer(invocation -> {
+            Collection<Long> restaurantIds = invocation.getArgument(0);
+            Map<Long, Set<Long>> booked = new HashMap<>();
+            restaurantIds.forEach(restaurantId -> booked.put(restaurantId, restaurantId == 3L ? Set.of(31L) : Set.of()));
+            return booked;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.stop();
+    }
+
+    @Test
+    void shouldRankRestaurantsByBestFitAndSkipFullyBookedOnes() {
+        List<RestaurantAvailability> results = searchService.search(request(null));
+
+        assertEquals(List.of(2L, 1L), results.stream().map(RestaurantAvailability::getRestaurantId).toList());
+        assertEquals(4, results.get(0).getBestFitCapacity());
+        assertEquals(2, results.get(0).getFreeTables());
+        assertEquals(List.of(22L, 21L), results.get(0).getAvailableTables().stream().map(TableDTO::getId).toList());
+        verify(tableRepository, times(1)).findAllDTOs();
+        // Three candidate restaurants in shards of two
+        verify(occupancyService, times(2)).bookedTables(anyCollection(), eq(DATE), eq(TIME));
+    }
+
+    @Test
+    void shouldStreamEveryShard() throws Exception {
+        List<List<RestaurantAvailability>> shards = Collections.synchronizedList(new ArrayList<>());
+
+        searchService.searchStreaming(request(null), shards::add).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, shards.size());
+        assertEquals(2, shards.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void shouldOnlySearchRequestedRestaurants() {
+        when(restaurantRepository.findByIdInAndIsClosedFalse(List.of(3L))).thenReturn(List.of(restaurant3));
+
+        List<RestaurantAvailability> results = searchService.search(request(List.of(3L)));
+
+        assertTrue(results.isEmpty());
+        verify(restaurantRepository, never()).findByIsClosedFalse();
+    }
+
+    @Test
+    void shouldPropagateShardFailure() {
+        doThrow(new IllegalStateException("boom")).when(occupancyService).bookedTables(anyCollection(), any(), any());
+
+        assertThrows(IllegalStateException.class, () -> searchService.search(request(null)));
+    }
+
+    private AvailabilitySearchRequest request(List<Long> restaurantIds) {
+        return AvailabilitySearchRequest.builder()
+                .restaurantIds(restaurantIds)
+                .date(DATE)
+                .time(TIME)
+                .numberOfPeople(4)
+                .build();
+    }
+
+    private TableDTO table(Long id, Restaurant restaurant, Integer capacity) {
+        return TableDTO.builder()
+                .id(id)
+                .restaurantId(restaurant.getId())
+                .tableNumber("T" + id)
+                .capacity(capacity)
+                .build();
+    }
+}
@@ -1,26 +1,36 @@
 package com.project.restaurant_service.app.availability;
 
-import com.project.reservation_service.api.dto.ReservationDTO;
-import com.project.reservation_service.client.ReservationServiceClient;
 import com.project.restaurant_service.api.dto.TableDTO;
+import com.project.restaurant_service.api.dto.response.AvailabilityGridResponse;
 import com.project.restaurant_service.api.dto.response.AvailabilityResponse;
 import com.project.restaurant_service.api.exception.RestaurantNotFoundException;
 import com.project.restaurant_service.app.restaurant.Restaurant;
 import com.project.restaurant_service.app.restaurant.RestaurantRepository;
-import com.project.restaurant_service.app.table.TableEntity;
-import com.project.restaurant_service.app.table.TableMapper;
-import com.project.restaurant_service.app.table.TableRepository;
+import com.project.restaurant_service.app.table.TableCatalog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,20 +43,15 @@ class AvailabilityServiceTest {
     private RestaurantRepository restaurantRepository;
 
     @Mock
-    private TableRepository tableRepository;
+    private TableCatalog tableCatalog;
 
     @Mock
-    private ReservationServiceClient reservationClient;
-
-    @Mock
-    private TableMapper tableMapper;
+    private OccupancyService occupancyService;
 
     @InjectMocks
     private AvailabilityService availabilityService;
 
     private Restaurant restaurant;
-    private TableEntity table1;
-    private TableEntity table2;
     private TableDTO tableDTO1;
     private TableDTO tableDTO2;
 
@@ -58,20 +63,6 @@ class AvailabilityServiceTest {
                 .isClosed(false)
                 .build();
 
-        table1 = TableEntity.builder()
-                .id(1L)
-                .restaurant(restaurant)
-                .tableNumber("T1")
-                .capacity(4)
-                .build();
-
-        table2 = TableEntity.builder()
-                .id(2L)
-                .restaurant(restaurant)
-                .tableNumber("T2")
-                .capacity(6)
-                .build();
-
         tableDTO1 = TableDTO.builder()
                 .id(1L)
                 .tableNumber("T1")
@@ -87,12 +78,10 @@ class AvailabilityServiceTest {
 
     @Test
     void shouldReturnAvailableTablesWhenNoReservations() {
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
-        when(tableRepository.findByRestaurantIdAndCapacityGreaterThanEqual(1L, 4))
-                .thenReturn(List.of(table1, table2));
-        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any())).thenReturn(List.of());
-        when(tableMapper.toDTO(table1)).thenReturn(tableDTO1);
-        when(tableMapper.toDTO(table2)).thenReturn(tableDTO2);
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+        when(tableCatalog.tablesSeating(1L, 4))
+                .thenReturn(List.of(tableDTO1, tableDTO2));
+        when(occupancyService.bookedTables(1L, LocalDate.of(2026, 1, 15), LocalTime.of(19, 0))).thenReturn(Set.of());
 
         AvailabilityResponse response = availabilityService.checkAvailability(
                 1L,
@@ -104,23 +93,16 @@ class AvailabilityServiceTest {
         assertTrue(response.getAvailable());
         assertFalse(response.getClosed());
         assertEquals(2, response.getAvailableTables().size());
-        verify(reservationClient).getReservationsByRestaurantAndDateAndTime(any());
-        verify(tableMapper).toDTO(table1);
-        verify(tableMapper).toDTO(table2);
+        verify(occupancyService).bookedTables(1L, LocalDate.of(2026, 1, 15), LocalTime.of(19, 0));
     }
 
     @Test
     void shouldFilterOutBookedTables() {
-        ReservationDTO bookedReservation = ReservationDTO.builder()
-                .tableId(1L)
-                .build();
-
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
-        when(tableRepository.findByRestaurantIdAndCapacityGreaterThanEqual(1L, 4))
-                .thenReturn(List.of(table1, table2));
-        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any()))
-                .thenReturn(List.of(bookedReservation));
-        when(tableMapper.toDTO(table2)).thenReturn(tableDTO2);
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+        when(tableCatalog.tablesSeating(1L, 4))
+                .thenReturn(List.of(tableDTO1, tableDTO2));
+        when(occupancyService.bookedTables(1L, LocalDate.of(2026, 1, 15), LocalTime.of(19, 0)))
+                .thenReturn(Set.of(1L));
 
         AvailabilityResponse response = availabilityService.checkAvailability(
                 1L,
@@ -132,19 +114,15 @@ class AvailabilityServiceTest {
         assertTrue(response.getAvailable());
         assertEquals(1, response.getAvailableTables().size());
         assertEquals(2L, response.getAvailableTables().get(0).getId());
-        verify(tableMapper, times(1)).toDTO(any(TableEntity.class));
     }
 
     @Test
     void shouldReturnUnavailableWhenAllTablesBooked() {
-        ReservationDTO reservation1 = ReservationDTO.builder().tableId(1L).build();
-        ReservationDTO reservation2 = ReservationDTO.builder().tableId(2L).build();
-
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
-        when(tableRepository.findByRestaurantIdAndCapacityGreaterThanEqual(1L, 4))
-                .thenReturn(List.of(table1, table2));
-        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any()))
-                .thenReturn(List.of(reservation1, reservation2));
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+        when(tableCatalog.tablesSeating(1L, 4))
+                .thenReturn(List.of(tableDTO1, tableDTO2));
+        when(occupancyService.bookedTables(1L, LocalDate.of(2026, 1, 15), LocalTime.of(19, 0)))
+                .thenReturn(Set.of(1L, 2L));
 
         AvailabilityResponse response = availabilityService.checkAvailability(
                 1L,
@@ -156,13 +134,12 @@ class AvailabilityServiceTest {
         assertFalse(response.getAvailable());
         assertEquals(0, response.getAvailableTables().size());
         assertTrue(response.getMessage().contains("booked"));
-        verify(tableMapper, never()).toDTO(any(TableEntity.class));
     }
 
     @Test
     void shouldReturnUnavailableWhenRestaurantIsClosed() {
         restaurant.setIsClosed(true);
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
 
         AvailabilityResponse response = availabilityService.checkAvailability(
                 1L,
@@ -177,8 +154,8 @@ class AvailabilityServiceTest {
 
     @Test
     void shouldReturnUnavailableWhenNoSuitableTables() {
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
-        when(tableRepository.findByRestaurantIdAndCapacityGreaterThanEqual(1L, 10))
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+        when(tableCatalog.tablesSeating(1L, 10))
                 .thenReturn(List.of());
 
         AvailabilityResponse response = availabilityService.checkAvailability(
@@ -195,7 +172,7 @@ class AvailabilityServiceTest {
 
     @Test
     void shouldThrowExceptionWhenRestaurantNotFound() {
-        when(restaurantRepository.findById(999L)).thenReturn(Optional.empty());
+        when(restaurantRepository.findIsClosedById(999L)).thenReturn(Optional.empty());
 
         assertThrows(RestaurantNotFoundException.class, () -> {
             availabilityService.checkAvailability(
@@ -206,4 +183,109 @@ class AvailabilityServiceTest {
             );
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldComputeGridFromSingleDayLoad() {
+        ReflectionTestUtils.setField(availabilityService, "slotMinutes", 30);
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+        when(tableCatalog.tablesSeating(1L, 4))
+                .thenReturn(List.of(tableDTO1, tableDTO2));
+        when(occupancyService.bookedTablesByTime(1L, LocalDate.of(2026, 1, 15)))
+                .thenReturn(Map.of(
+                        LocalTime.of(19, 0), Set.of(1L),
+                        LocalTime.of(19, 30), Set.of(1L, 2L)
+                ));
+
+        AvailabilityGridResponse response = availabilityService.checkAvailabilityGrid(
+                1L,
+                LocalDate.of(2026, 1, 15),
+                4,
+                LocalTime.of(18, 30),
+                LocalTime.of(20, 0),
+                null
+        );
+
+        assertFalse(response.getClosed());
+        assertEquals(4, response.getSlots().size());
+        assertEquals(2, response.getSlots().get(0).getFreeTables());
+        assertEquals(List.of(2L), response.getSlots().get(1).getFreeTableIds());
+        assertFalse(response.getSlots().get(2).getAvailable());
+        assertTrue(response.getSlots().get(3).getAvailable());
+        verify(occupancyService, times(1)).bookedTablesByTime(1L, LocalDate.of(2026, 1, 15));
+    }
+
+    @Test
+    void shouldReturnEmptyGridWhenRestaurantIsClosed() {
+        restaurant.setIsClosed(true);
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(restaurant.getIsClosed()));
+
+        AvailabilityGridResponse response = availabilityService.checkAvailabilityGrid(
+                1L,
+                LocalDate.of(2026, 1, 15),
+                4,
+                null,
+                null,
+                null
+        );
+
+        assertTrue(response.getClosed());
+        assertTrue(response.getSlots().isEmpty());
+        verify(occupancyService, never()).bookedTablesByTime(any(), any());
+    }
+
+    @Test
+    void shouldShareOneComputationBetweenConcurrentIdenticalChecks() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AvailabilityService service = new AvailabilityService(restaurantRepository, tableCatalog, occupancyService, meterRegistry);
+        ReflectionTestUtils.setField(service, "checkResultTtl", Duration.ZERO);
+        service.registerMetrics();
+
+        LocalDate date = LocalDate.of(2026, 1, 15);
+        LocalTime time = LocalTime.of(19, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restaurantRepository.findIsClosedById(1L)).thenReturn(Optional.of(false));
+        when(tableCatalog.tablesSeating(1L, 4)).thenReturn(List.of(tableDTO1, tableDTO2));
+        // Holds the first check in its occupancy lookup until the other ones joined it
+        when(occupancyService.bookedTables(1L, date, time)).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return Set.of(1L);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AvailabilityResponse>> checks = new ArrayList<>();
+            checks.add(executor.submit(() -> service.checkAvailability(1L, date, time, 4)));
+            waitUntil(() -> checkRequests(meterRegistry, "executed") == 1);
+            for (int i = 0; i < 7; i++) {
+                checks.add(executor.submit(() -> service.checkAvailability(1L, date, time, 4)));
+            }
+            waitUntil(() -> checkRequests(meterRegistry, "coalesced") == 7);
+            release.countDown();
+
+            for (Future<AvailabilityResponse> check : checks) {
+                AvailabilityResponse response = check.get(5, TimeUnit.SECONDS);
+                assertTrue(response.getAvailable());
+                assertEquals(List.of(tableDTO2), response.getAvailableTables());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(restaurantRepository, times(1)).findIsClosedById(1L);
+        verify(occupancyService, times(1)).bookedTables(1L, date, time);
+        assertEquals(1, checkRequests(meterRegistry, "executed"));
+        assertEquals(7, checkRequests(meterRegistry, "coalesced"));
+    }
+
+    private static double checkRequests(MeterRegistry meterRegistry, String result) {
+        return meterRegistry.get("availability.check.requests").tag("result", result).functionCounter().count();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.restaurant_service.app.availability;
+
+import com.project.reservation_service.api.dto.ReservationDTO;
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.client.ReservationServiceClient;
+import com.project.restaurant_service.api.dto.response.OccupancyVerificationResponse;
+import com.project.restaurant_service.api.exception.ProjectionNotReadyException;
+import com.project.restaurant_service.app.projection.ProjectionService;
+import com.project.restaurant_service.app.projection.ReservationProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.hateoas.CollectionModel;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 15);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    @Mock
+    private ReservationServiceClient reservationClient;
+
+    @Mock
+    private ProjectionService projectionService;
+
+    private OccupancyIndex index;
+    private ReservationProjection projection;
+    private OccupancyService occupancyService;
+
+    @BeforeEach
+    void setUp() {
+        index = new OccupancyIndex();
+        projection = new ReservationProjection(index);
+        occupancyService = new OccupancyService(index, projection, projectionService, reservationClient);
+    }
+
+    @Test
+    void shouldRefuseAvailabilityUntilFirstResync() {
+        assertThrows(ProjectionNotReadyException.class, () -> occupancyService.bookedTables(1L, DATE, TIME));
+        assertThrows(ProjectionNotReadyException.class, () -> occupancyService.bookedTables(List.of(1L), DATE, TIME));
+        assertThrows(ProjectionNotReadyException.class, () -> occupancyService.bookedTablesByTime(1L, DATE));
+    }
+
+    @Test
+    void shouldAnswerFromProjectionWithoutCallingReservationService() {
+        projection.completeResync(List.of(event(1L, 1L, 4L, ReservationStatus.CONFIRMED)));
+        projection.apply(event(2L, 2L, 7L, ReservationStatus.PENDING));
+
+        Map<Long, Set<Long>> booked = occupancyService.bookedTables(List.of(1L, 2L, 3L), DATE, TIME);
+
+        assertEquals(Set.of(4L), booked.get(1L));
+        assertEquals(Set.of(7L), booked.get(2L));
+        assertEquals(Set.of(), booked.get(3L));
+        assertEquals(Set.of(), occupancyService.bookedTables(1L, DATE, LocalTime.of(20, 0)));
+        verifyNoInteractions(reservationClient);
+    }
+
+    @Test
+    void shouldReportDiscrepanciesAndResyncOnRebuild() {
+        projection.completeResync(List.of(event(1L, 1L, 4L, ReservationStatus.CONFIRMED)));
+        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any()))
+                .thenReturn(CollectionModel.of(List.of(
+                        reservation(5L, "CONFIRMED"),
+                        reservation(6L, "CANCELED")
+                )));
+
+        OccupancyVerificationResponse response = occupancyService.verify(1L, DATE, true);
+
+        assertFalse(response.getConsistent());
+        assertTrue(response.getRebuilt());
+        assertEquals(2, response.getDiscrepancies().size());
+        verify(projectionService).resync(1L, DATE);
+    }
+
+    @Test
+    void shouldReportConsistentIndex() {
+        projection.completeResync(List.of(event(1L, 1L, 5L, ReservationStatus.CONFIRMED)));
+        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any()))
+                .thenReturn(CollectionModel.of(List.of(reservation(5L, "CONFIRMED"))));
+
+        OccupancyVerificationResponse response = occupancyService.verify(1L, DATE, false);
+
+        assertTrue(response.getConsistent());
+        assertEquals(1, response.getIndexedBookings());
+        assertEquals(1, response.getReservedBookings());
+        verify(projectionService, never()).resync(any(), any());
+    }
+
+    @Test
+    void shouldCountUnknownStatusesAsBooked() {
+        projection.completeResync(List.of(event(1L, 1L, 5L, ReservationStatus.CONFIRMED)));
+        when(reservationClient.getReservationsByRestaurantAndDateAndTime(any()))
+                .thenReturn(CollectionModel.of(List.of(reservation(5L, "NO_SHOW"))));
+
+        OccupancyVerificationResponse response = occupancyService.verify(1L, DATE, false);
+
+        assertTrue(response.getConsistent());
+        assertEquals(1, response.getReservedBookings());
+    }
+
+    private ReservationEventDTO event(Long reservationId, Long restaurantId, Long tableId, ReservationStatus status) {
+        return ReservationEventDTO.builder()
+                .reservationId(reservationId)
+                .restaurantId(restaurantId)
+                .tableId(tableId)
+                .date(DATE)
+                .time(TIME)
+                .status(status)
+                .type(ReservationEventType.SNAPSHOT)
+                .version(0L)
+                .build();
+    }
+
+    private ReservationDTO reservation(Long tableId, String status) {
+        return ReservationDTO.builder()
+                .restaurantId(1L)
+                .tableId(tableId)
+                .date(DATE)
+                .time(TIME)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.restaurant_service.app.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    private final AtomicInteger computations = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneComputationBetweenConcurrentCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = executor.submit(() -> singleFlight.get("key", () -> awaitThenCompute(release)));
+        waitUntil(() -> computations.get() == 1);
+
+        List<Future<Integer>> others = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            others.add(executor.submit(() -> singleFlight.get("key", () -> awaitThenCompute(release))));
+        }
+        waitUntil(() -> singleFlight.coalesced() == 7);
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> other : others) {
+            assertEquals(1, other.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, singleFlight.executed());
+    }
+
+    @Test
+    void shouldGiveTheFailureToConcurrentCallersWithoutKeepingIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> first = executor.submit(() -> singleFlight.get("key", () -> {
+            awaitThenCompute(release);
+            throw new IllegalStateException("Database unavailable");
+        }));
+        waitUntil(() -> computations.get() == 1);
+        Future<Integer> other = executor.submit(() -> singleFlight.get("key", () -> awaitThenCompute(release)));
+        waitUntil(() -> singleFlight.coalesced() == 1);
+        release.countDown();
+
+        Exception failure = assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+
+        // The next caller computes again
+        assertEquals(2, singleFlight.get("key", computations::incrementAndGet));
+    }
+
+    @Test
+    void shouldComputeAgainOnceTheResultExpired() throws Exception {
+        assertEquals(1, singleFlight.get("key", computations::incrementAndGet));
+        assertEquals(2, singleFlight.get("key", computations::incrementAndGet));
+
+        singleFlight.setResultTtl(Duration.ofMillis(200));
+        assertEquals(3, singleFlight.get("key", computations::incrementAndGet));
+        assertEquals(3, singleFlight.get("key", computations::incrementAndGet));
+        assertEquals(4, singleFlight.get("other", computations::incrementAndGet));
+
+        // Computed again once the kept result expired, then kept in turn
+        waitUntil(() -> singleFlight.get("key", computations::incrementAndGet) == 5);
+        assertEquals(5, singleFlight.get("key", computations::incrementAndGet));
+    }
+
+    private Integer awaitThenCompute(CountDownLatch release) {
+        int computation = computations.incrementAndGet();
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return computation;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.restaurant_service.app.projection;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.reservation_service.client.ReservationServiceClient;
+import com.project.restaurant_service.api.dto.response.ProjectionStatusResponse;
+import com.project.restaurant_service.app.availability.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectionServiceTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    @Mock
+    private ReservationServiceClient reservationClient;
+
+    private OccupancyIndex index;
+    private ReservationProjection projection;
+    private ProjectionService projectionService;
+
+    @BeforeEach
+    void setUp() {
+        index = new OccupancyIndex();
+        projection = new ReservationProjection(index);
+        projectionService = new ProjectionService(projection, reservationClient);
+        ReflectionTestUtils.setField(projectionService, "resyncInterval", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(projectionService, "pageSize", 2);
+    }
+
+    @Test
+    void shouldPageThroughSnapshotOnResync() {
+        when(reservationClient.getActiveReservationEvents(any(), eq(0L), eq(2)))
+                .thenReturn(CollectionModel.of(List.of(event(1L, 4L), event(2L, 5L))));
+        when(reservationClient.getActiveReservationEvents(any(), eq(2L), eq(2)))
+                .thenReturn(CollectionModel.of(List.of(event(3L, 6L))));
+
+        ProjectionStatusResponse status = projectionService.resync();
+
+        assertTrue(status.getReady());
+        assertEquals(3, status.getReservations());
+        assertEquals(Set.of(4L, 5L, 6L), index.bookedTables(1L, DATE, TIME));
+    }
+
+    @Test
+    void shouldResyncOneDayOfOneRestaurant() {
+        projectionService.apply(List.of(event(1L, 4L), event(2L, 5L)));
+        when(reservationClient.getActiveReservationEventsOfDay(1L, DATE))
+                .thenReturn(CollectionModel.of(List.of(event(2L, 5L), event(3L, 6L))));
+
+        ProjectionStatusResponse status = projectionService.resync(1L, DATE);
+
+        assertEquals(2, status.getReservations());
+        assertEquals(Set.of(5L, 6L), index.bookedTables(1L, DATE, TIME));
+        verify(reservationClient, never()).getActiveReservationEvents(any(), any(), any());
+    }
+
+    @Test
+    void shouldStayNotReadyWhenResyncFails() {
+        when(reservationClient.getActiveReservationEvents(any(), any(), any()))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        projectionService.resyncWhenDue();
+
+        assertFalse(projectionService.status().getReady());
+    }
+
+    @Test
+    void shouldResyncOnlyWhenDue() {
+        when(reservationClient.getActiveReservationEvents(any(), any(), any()))
+                .thenReturn(CollectionModel.of(List.of()));
+
+        projectionService.resyncWhenDue();
+        projectionService.resyncWhenDue();
+
+        verify(reservationClient, times(1)).getActiveReservationEvents(any(), any(), any());
+    }
+
+    @Test
+    void shouldCountAppliedEvents() {
+        ProjectionStatusResponse status = projectionService.apply(List.of(event(1L, 4L), event(1L, 4L)));
+
+        assertEquals(1, status.getAppliedEvents());
+    }
+
+    private ReservationEventDTO event(Long reservationId, Long tableId) {
+        return ReservationEventDTO.builder()
+                .reservationId(reservationId)
+                .restaurantId(1L)
+                .tableId(tableId)
+                .date(DATE)
+                .time(TIME)
+                .status(ReservationStatus.CONFIRMED)
+                .type(ReservationEventType.SNAPSHOT)
+                .version(0L)
+                .build();
+    }
+}
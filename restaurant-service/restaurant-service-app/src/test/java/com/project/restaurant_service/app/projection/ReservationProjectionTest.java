@@ -0,0 +1,172 @@
+package com.project.restaurant_service.app.projection;
+
+import com.project.reservation_service.api.dto.ReservationEventDTO;
+import com.project.reservation_service.api.enums.ReservationEventType;
+import com.project.reservation_service.api.enums.ReservationStatus;
+import com.project.restaurant_service.app.availability.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationProjectionTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 15);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private OccupancyIndex index;
+    private ReservationProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        index = new OccupancyIndex();
+        projection = new ReservationProjection(index);
+    }
+
+    @Test
+    void shouldIgnoreOlderAndDuplicateEvents() {
+        assertTrue(projection.apply(event(1L, 4L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L)));
+        assertFalse(projection.apply(event(1L, 4L, TIME, ReservationStatus.CANCELED, ReservationEventType.CANCELED, 1L)));
+        assertFalse(projection.apply(event(1L, 4L, TIME, ReservationStatus.PENDING, ReservationEventType.CREATED, 0L)));
+
+        assertEquals(Set.of(4L), index.bookedTables(1L, DATE, TIME));
+    }
+
+    @Test
+    void shouldMoveAndReleaseTables() {
+        projection.apply(event(1L, 4L, TIME, ReservationStatus.PENDING, ReservationEventType.CREATED, 0L));
+        projection.apply(event(1L, 5L, TIME.plusHours(1), ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+
+        assertEquals(Set.of(), index.bookedTables(1L, DATE, TIME));
+        assertEquals(Set.of(5L), index.bookedTables(1L, DATE, TIME.plusHours(1)));
+
+        projection.apply(event(1L, 5L, TIME.plusHours(1), ReservationStatus.CONFIRMED, ReservationEventType.DELETED, 2L));
+
+        assertEquals(Set.of(), index.bookedTables(1L, DATE, TIME.plusHours(1)));
+    }
+
+    @Test
+    void shouldReplayEventsReceivedDuringResync() {
+        projection.apply(event(1L, 4L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        assertFalse(projection.isReady());
+
+        projection.beginResync();
+        projection.apply(event(2L, 6L, TIME, ReservationStatus.PENDING, ReservationEventType.CREATED, 0L));
+        projection.apply(event(3L, 7L, TIME, ReservationStatus.CANCELED, ReservationEventType.CANCELED, 3L));
+        // Snapshot taken before reservation 2 existed and before reservation 3 was canceled
+        projection.completeResync(List.of(
+                event(1L, 4L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.SNAPSHOT, 1L),
+                event(3L, 7L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.SNAPSHOT, 2L)
+        ));
+
+        assertTrue(projection.isReady());
+        assertEquals(Set.of(4L, 6L), index.bookedTables(1L, DATE, TIME));
+    }
+
+    @Test
+    void shouldNotReviveReleasedReservationOnLateEvent() {
+        projection.apply(event(1L, 4L, TIME, ReservationStatus.CANCELED, ReservationEventType.CANCELED, 2L));
+        projection.completeResync(List.of());
+
+        projection.apply(event(1L, 4L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+
+        assertEquals(Set.of(), index.bookedTables(1L, DATE, TIME));
+    }
+
+    @Test
+    void shouldEvictPastDays() {
+        projection.apply(event(1L, 4L, TIME, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+
+        projection.evictBefore(DATE.plusDays(1));
+
+        assertEquals(0, projection.size());
+        assertEquals(Set.of(), index.bookedTables(1L, DATE, TIME));
+    }
+
+    @Test
+    void shouldKeepLaterBookingsOnceEvictedTablesAreRenumbered() {
+        projection.apply(event(1L, DATE, 4L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(2L, DATE, 5L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(3L, DATE.plusDays(1), 6L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(4L, DATE.plusDays(1), 5L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+
+        projection.evictBefore(DATE.plusDays(1));
+
+        assertEquals(Set.of(5L, 6L), index.bookedTables(1L, DATE.plusDays(1), TIME));
+
+        // Evicted tables are handed an ordinal again when booked anew, without colliding with the kept ones
+        projection.apply(event(5L, DATE.plusDays(1), 4L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(3L, DATE.plusDays(1), 6L, ReservationStatus.CANCELED, ReservationEventType.CANCELED, 2L));
+
+        assertEquals(Set.of(4L, 5L), index.bookedTables(1L, DATE.plusDays(1), TIME));
+
+        projection.evictBefore(DATE.plusDays(2));
+
+        assertEquals(Map.of(), index.bookedTablesByTime(1L, DATE.plusDays(1)));
+    }
+
+    @Test
+    void shouldResyncOneDayOnly() {
+        projection.apply(event(1L, DATE, 4L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(2L, DATE, 5L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        projection.apply(event(3L, DATE.plusDays(1), 6L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+        // Moved to the resynced day while its event was missed
+        projection.apply(event(4L, DATE.plusDays(2), 7L, ReservationStatus.CONFIRMED, ReservationEventType.CONFIRMED, 1L));
+
+        projection.beginResync();
+        projection.apply(event(5L, DATE, 8L, ReservationStatus.PENDING, ReservationEventType.CREATED, 0L));
+        // Reservation 2 was canceled while its event was missed
+        projection.completeResync(1L, DATE, List.of(
+                event(1L, DATE, 4L, ReservationStatus.CONFIRMED, ReservationEventType.SNAPSHOT, 1L),
+                event(4L, DATE, 7L, ReservationStatus.CONFIRMED, ReservationEventType.SNAPSHOT, 2L)
+        ));
+
+        assertEquals(Set.of(4L, 7L, 8L), index.bookedTables(1L, DATE, TIME));
+        assertEquals(Set.of(6L), index.bookedTables(1L, DATE.plusDays(1), TIME));
+        assertEquals(Set.of(), index.bookedTables(1L, DATE.plusDays(2), TIME));
+        assertFalse(projection.isReady());
+    }
+
+    private ReservationEventDTO event(Long reservationId,
+                                      Long tableId,
+                                      LocalTime time,
+                                      ReservationStatus status,
+                                      ReservationEventType type,
+                                      Long version) {
+        return event(reservationId, DATE, tableId, time, status, type, version);
+    }
+
+    private ReservationEventDTO event(Long reservationId,
+                                      LocalDate date,
+                                      Long tableId,
+                                      ReservationStatus status,
+                                      ReservationEventType type,
+                                      Long version) {
+        return event(reservationId, date, tableId, TIME, status, type, version);
+    }
+
+    private ReservationEventDTO event(Long reservationId,
+                                      LocalDate date,
+                                      Long tableId,
+                                      LocalTime time,
+                                      ReservationStatus status,
+                                      ReservationEventType type,
+                                      Long version) {
+        return ReservationEventDTO.builder()
+                .reservationId(reservationId)
+                .restaurantId(1L)
+                .tableId(tableId)
+                .date(date)
+                .time(time)
+                .status(status)
+                .type(type)
+                .version(version)
+                .build();
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.net.URI;
+
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -86,6 +88,35 @@ class RestaurantControllerIntegrationTest {
                 .andExpect(jsonPath("$._links.self.href").exists());
     }
 
+    @Test
+    void shouldPageThroughRestaurantsWithCursors() throws Exception {
+        repository.save(Restaurant.builder()
+                .name("Second Restaurant")
+                .address("456 Test Street")
+                .phone("+33123456780")
+                .email("second@restaurant.fr")
+                .isClosed(false)
+                .build());
+
+        String first = mockMvc.perform(get("/api/restaurant").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.restaurants", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.restaurants[0].name").value("Test Restaurant"))
+                .andExpect(jsonPath("$._links.prev").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String next = objectMapper.readTree(first).at("/_links/next/href").asText();
+        mockMvc.perform(get(URI.create(next)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.restaurants", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.restaurants[0].name").value("Second Restaurant"))
+                .andExpect(jsonPath("$._links.next").doesNotExist())
+                .andExpect(jsonPath("$._links.prev.href").exists());
+
+        mockMvc.perform(get("/api/restaurant").param("before", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldValidatePhoneNumber() throws Exception {
         CreateRestaurantRequest request = CreateRestaurantRequest.builder()
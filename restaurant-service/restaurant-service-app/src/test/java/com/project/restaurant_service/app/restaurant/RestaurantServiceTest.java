@@ -15,6 +15,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,18 +75,18 @@ class RestaurantServiceTest {
 
     @Test
     void shouldGetRestaurantById() {
-        when(repository.findById(1L)).thenReturn(Optional.of(restaurant));
-        when(mapper.toDTO(restaurant)).thenReturn(restaurantDTO);
+        when(repository.findDTOById(1L)).thenReturn(Optional.of(restaurantDTO));
 
         RestaurantDTO result = service.getById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
+        verifyNoInteractions(mapper);
     }
 
     @Test
     void shouldThrowExceptionWhenRestaurantNotFound() {
-        when(repository.findById(999L)).thenReturn(Optional.empty());
+        when(repository.findDTOById(999L)).thenReturn(Optional.empty());
 
         assertThrows(RestaurantNotFoundException.class, () -> {
             service.getById(999L);
@@ -0,0 +1,88 @@
+package com.project.restaurant_service.app.table;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableCatalogTest {
+
+    @Mock
+    private TableRepository tableRepository;
+
+    private TableCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new TableCatalog(tableRepository);
+        when(tableRepository.findAllDTOs()).thenReturn(List.of(
+                dto(1L, 8),
+                dto(2L, 2),
+                dto(3L, 4),
+                dto(4L, 4)
+        ));
+    }
+
+    @Test
+    void shouldReturnSuitableTablesBestFitFirst() {
+        List<TableDTO> tables = catalog.tablesSeating(1L, 3);
+
+        assertEquals(List.of(3L, 4L, 1L), ids(tables));
+        assertEquals(List.of(2L, 3L, 4L, 1L), ids(catalog.tablesSeating(1L, 1)));
+        assertTrue(catalog.tablesSeating(1L, 9).isEmpty());
+        assertTrue(catalog.tablesSeating(2L, 1).isEmpty());
+        // Loaded once, every later lookup is answered from memory
+        verify(tableRepository, times(1)).findAllDTOs();
+    }
+
+    @Test
+    void shouldApplyCreateUpdateAndDelete() {
+        catalog.reload();
+
+        catalog.put(dto(5L, 3));
+        catalog.put(dto(1L, 3));
+        catalog.remove(3L);
+
+        assertEquals(List.of(1L, 5L, 4L), ids(catalog.tablesSeating(1L, 3)));
+    }
+
+    @Test
+    void shouldRemoveEveryTableOfADeletedRestaurant() {
+        catalog.reload();
+
+        catalog.removeRestaurant(1L);
+
+        assertTrue(catalog.tablesSeating(1L, 1).isEmpty());
+    }
+
+    @Test
+    void shouldLeaveOutRestaurantsWithoutSuitableTables() {
+        Map<Long, List<TableDTO>> tables = catalog.tablesSeating(List.of(1L, 2L), 6);
+
+        assertEquals(Set.of(1L), tables.keySet());
+        assertEquals(List.of(1L), ids(tables.get(1L)));
+    }
+
+    private TableDTO dto(Long id, Integer capacity) {
+        return TableDTO.builder()
+                .id(id)
+                .restaurantId(1L)
+                .tableNumber("T" + id)
+                .capacity(capacity)
+                .build();
+    }
+
+    private List<Long> ids(List<TableDTO> tables) {
+        return tables.stream().map(TableDTO::getId).toList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.restaurant_service.app.table;
+
+import com.project.restaurant_service.api.dto.TableDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class TableLinksTest {
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("restaurant.example.com");
+        request.setContextPath("/app");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldBuildTheLinksLinkToBuilds() {
+        TableDTO table = TableDTO.builder()
+                .id(7L)
+                .restaurantId(3L)
+                .tableNumber("T7")
+                .capacity(4)
+                .build();
+
+        List<Link> expected = List.of(
+                linkTo(methodOn(TableController.class).getOne(7L)).withSelfRel(),
+                linkTo(methodOn(TableController.class).getAllForRestaurant(3L)).withRel("all-tables-for-a-restaurant"));
+
+        assertEquals(expected.toString(), TableLinks.fromCurrentRequest().of(table).toString());
+    }
+}
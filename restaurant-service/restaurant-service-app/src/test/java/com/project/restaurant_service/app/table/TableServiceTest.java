@@ -32,6 +32,9 @@ class TableServiceTest {
     @Mock
     private TableMapper tableMapper;
 
+    @Mock
+    private TableCatalog tableCatalog;
+
     @InjectMocks
     private TableService tableService;
 
@@ -86,6 +89,7 @@ class TableServiceTest {
         assertEquals(4, result.getCapacity());
         verify(restaurantRepository).findById(1L);
         verify(tableRepository).save(any(TableEntity.class));
+        verify(tableCatalog).put(tableDTO);
     }
 
     @Test
@@ -104,24 +108,25 @@ class TableServiceTest {
 
         verify(restaurantRepository).findById(999L);
         verify(tableRepository, never()).save(any(TableEntity.class));
+        verify(tableCatalog, never()).put(any());
     }
 
     @Test
     void shouldGetTableById() {
-        when(tableRepository.findById(1L)).thenReturn(Optional.of(tableEntity));
-        when(tableMapper.toDTO(tableEntity)).thenReturn(tableDTO);
+        when(tableRepository.findDTOById(1L)).thenReturn(Optional.of(tableDTO));
 
         TableDTO result = tableService.getById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("T1", result.getTableNumber());
-        verify(tableRepository).findById(1L);
+        verify(tableRepository).findDTOById(1L);
+        verifyNoInteractions(tableMapper);
     }
 
     @Test
     void shouldThrowExceptionWhenTableNotFound() {
-        when(tableRepository.findById(999L)).thenReturn(Optional.empty());
+        when(tableRepository.findDTOById(999L)).thenReturn(Optional.empty());
 
         assertThrows(TableNotFoundException.class, () -> {
             tableService.getById(999L);
@@ -130,16 +135,14 @@ class TableServiceTest {
 
     @Test
     void shouldGetTablesByRestaurantId() {
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
-
-        when(tableRepository.findByRestaurantId(1L)).thenReturn(List.of(tableEntity));
-        when(tableMapper.toDTO(any(TableEntity.class))).thenReturn(tableDTO);
+        when(restaurantRepository.existsById(1L)).thenReturn(true);
+        when(tableRepository.findDTOsByRestaurantId(1L)).thenReturn(List.of(tableDTO));
 
         List<TableDTO> result = tableService.getAllForRestaurant(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("T1", result.get(0).getTableNumber());
-        verify(tableRepository).findByRestaurantId(1L);
+        verify(tableRepository).findDTOsByRestaurantId(1L);
     }
 }
\ No newline at end of file